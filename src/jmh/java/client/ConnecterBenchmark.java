@@ -0,0 +1,61 @@
+package client;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * ClientConnecter round trips against a StubServer running in the benchmark JVM
+ * with no injected latency, so this measures the client and loopback HTTP only.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ConnecterBenchmark
+{
+    private StubServer server;
+    private ClientConnecter clientConnecter;
+    private UUID sessionId;
+
+    @Setup
+    public void setup() throws Exception {
+        server = new StubServer(0);
+        server.start();
+        clientConnecter = new ClientConnecter(server.getBaseUrl(), "bench", "bench");
+        sessionId = clientConnecter.startGame().sessionId;
+    }
+
+    @TearDown
+    public void tearDown() {
+        server.stop();
+    }
+
+    @Benchmark
+    public GameState resumeSession() throws Exception {
+        return clientConnecter.resumeSession(sessionId);
+    }
+
+    // bet, stand if the hand is not already over, then reset: two or three round trips
+    @Benchmark
+    public GameState playHand() throws Exception {
+        GameState state = clientConnecter.placeBet(sessionId, 10);
+        if (!state.gameOver) {
+            state = clientConnecter.stand(sessionId);
+        }
+        return clientConnecter.newGame(sessionId);
+    }
+}
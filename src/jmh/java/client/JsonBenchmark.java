@@ -0,0 +1,81 @@
+package client;
+
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+
+/**
+ * Decoding server responses: a GameState in the middle of a hand, and a session list.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class JsonBenchmark
+{
+    private static final Type SESSION_LIST = new TypeToken<List<SessionSummary>>() {}.getType();
+
+    private String gameState;
+    private byte[] gameStateBytes;
+    private String sessionList;
+
+    @Setup
+    public void setup() {
+        gameState = "{\"sessionId\":\"fb2e4f1c-0aa4-4157-96b5-4692f47cc801\","
+            + "\"playerCards\":[\"TWO OF CLUBS\",\"TEN OF SPADES\"],\"playerValue\":12,"
+            + "\"dealerCards\":[\"JACK OF HEARTS\",\"???\"],\"dealerValue\":null,"
+            + "\"phase\":\"PLAYER_TURN\",\"outcome\":null,\"balance\":0,\"currentBet\":50,"
+            + "\"canHit\":true,\"canStand\":true,\"gameOver\":false,\"cardsRemaining\":48,\"reshuffled\":false}";
+        gameStateBytes = gameState.getBytes(StandardCharsets.UTF_8);
+
+        StringBuilder sessions = new StringBuilder("[");
+        for (int i = 0; i < 100; i++) {
+            if (i > 0) {
+                sessions.append(',');
+            }
+            sessions.append("{\"sessionId\":\"fb2e4f1c-0aa4-4157-96b5-4692f47c").append(String.format("%04d", i))
+                .append("\",\"balance\":").append(i * 10 - 500)
+                .append(",\"currentBet\":10,\"phase\":\"RESOLVED\",\"outcome\":\"PUSH\"")
+                .append(",\"lastAccess\":\"2025-05-01T12:34:56.789\"}");
+        }
+        sessionList = sessions.append(']').toString();
+    }
+
+    @Benchmark
+    public GameState gameStateFromJson() {
+        return GameState.fromJson(gameState);
+    }
+
+    @Benchmark
+    public GameState gameStateDecodeBytes() {
+        return GameStateDecoder.decode(gameStateBytes);
+    }
+
+    // how the client decoded every response before GameStateDecoder
+    @Benchmark
+    public GameState gameStateNewGson() {
+        return new Gson().fromJson(gameState, GameState.class);
+    }
+
+    @Benchmark
+    public List<SessionSummary> sessionList() {
+        return JsonUtil.GSON.fromJson(sessionList, SESSION_LIST);
+    }
+}
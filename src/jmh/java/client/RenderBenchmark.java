@@ -0,0 +1,61 @@
+package client;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+import javax.swing.JButton;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * One full repaint of a CardPanel showing a typical table, drawn into an offscreen image.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+@State(Scope.Thread)
+public class RenderBenchmark
+{
+    private CardPanel cardPanel;
+    private BufferedImage image;
+    private Graphics2D graphics;
+
+    @Setup
+    public void setup() {
+        CardImages cardImages = CardImages.load();
+        cardPanel = new CardPanel(new JButton("Hit"), new JButton("Stand"), cardImages);
+        cardPanel.setSize(1000, 800);
+        cardPanel.addDealerCard(Card.JACK_OF_HEARTS);
+        cardPanel.addDealerCard(Card.HIDDEN);
+        cardPanel.addPlayerCard(Card.TWO_OF_CLUBS);
+        cardPanel.addPlayerCard(Card.TEN_OF_SPADES);
+        cardPanel.addPlayerCard(Card.SIX_OF_HEARTS);
+
+        image = new BufferedImage(1000, 800, BufferedImage.TYPE_INT_RGB);
+        graphics = image.createGraphics();
+    }
+
+    @TearDown
+    public void tearDown() {
+        graphics.dispose();
+    }
+
+    @Benchmark
+    public BufferedImage paintComponent() {
+        cardPanel.paintComponent(graphics);
+        return image;
+    }
+}
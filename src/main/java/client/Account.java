@@ -0,0 +1,83 @@
+package client;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A username and password for the server, and how many calls may be in flight
+ * for it at once.
+ *
+ * Accounts are read from a text file with one account per line:
+ * <pre>
+ * # username password [maxConcurrent]
+ * superman 12347
+ * batman  54321 16
+ * </pre>
+ */
+public class Account
+{
+    public static final Path DEFAULT_FILE = Path.of("accounts.txt");
+    public static final int DEFAULT_MAX_CONCURRENT = 32;
+
+    public final String username;
+    public final String password;
+    public final int maxConcurrent;
+
+    public Account(String username, String password)
+    {
+        this(username, password, DEFAULT_MAX_CONCURRENT);
+    }
+
+    public Account(String username, String password, int maxConcurrent)
+    {
+        if (maxConcurrent < 1) {
+            throw new IllegalArgumentException("maxConcurrent must be positive for " + username);
+        }
+        this.username = username;
+        this.password = password;
+        this.maxConcurrent = maxConcurrent;
+    }
+
+    public static List<Account> readAll(Path file) throws IOException {
+        List<Account> accounts = new ArrayList<>();
+        List<String> lines = Files.readAllLines(file);
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i).trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            String[] fields = line.split("\\s+");
+            if (fields.length < 2 || fields.length > 3) {
+                throw new IllegalArgumentException(file + ":" + (i + 1) + ": expected username password [maxConcurrent]");
+            }
+            int maxConcurrent = fields.length == 3 ? Integer.parseInt(fields[2]) : DEFAULT_MAX_CONCURRENT;
+            accounts.add(new Account(fields[0], fields[1], maxConcurrent));
+        }
+        return accounts;
+    }
+
+    /**
+     * The first account in the file, or the fallback if there is no file or it is empty.
+     */
+    public static Account firstOr(Path file, Account fallback) {
+        if (!Files.exists(file)) {
+            return fallback;
+        }
+        try {
+            List<Account> accounts = readAll(file);
+            return accounts.isEmpty() ? fallback : accounts.get(0);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public String toString()
+    {
+        return username;
+    }
+}
@@ -0,0 +1,286 @@
+package client;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Spreads sessions over several accounts, with one ClientConnecter per account.
+ *
+ * The server limits each account separately, so more accounts means more
+ * throughput. Each account gets its own limiter, capped at its maxConcurrent, and
+ * its own circuit breaker. A new session goes to the account with the lowest
+ * (load + 1) * latency, where load is its open sessions plus calls in flight and
+ * latency is a moving average over its recent calls, including time spent waiting
+ * for its limiter. Accounts whose breaker is open are skipped while any other is
+ * available. Every later call on a session goes to the account that started it.
+ */
+public class AccountPool implements BlackjackApi
+{
+    // weight of the newest call in the latency average
+    private static final double LATENCY_WEIGHT = 0.1;
+
+    private final List<Shard> shards = new ArrayList<>();
+    private final ConcurrentHashMap<UUID, Shard> owners = new ConcurrentHashMap<>();
+    // held while choosing an account and counting the new session on it
+    private final Object placement = new Object();
+    // held while looking up unknown sessions; lookups counts the ones that finished
+    private final Object lookup = new Object();
+    private final AtomicLong lookups = new AtomicLong();
+
+    public AccountPool(String baseUrl, List<Account> accounts)
+    {
+        this(baseUrl, accounts, TransportConfig.defaults());
+    }
+
+    public AccountPool(String baseUrl, List<Account> accounts, TransportConfig transport)
+    {
+        if (accounts.isEmpty()) {
+            throw new IllegalArgumentException("No accounts");
+        }
+        for (Account account : accounts) {
+            ClientConnecter connecter = new ClientConnecter(baseUrl, account.username, account.password, transport);
+            connecter.setLimiter(new ConcurrencyLimiter(Math.min(8, account.maxConcurrent), 1, account.maxConcurrent));
+            shards.add(new Shard(account, connecter));
+        }
+    }
+
+    public static AccountPool load(Path file, String baseUrl) throws IOException {
+        return new AccountPool(baseUrl, Account.readAll(file));
+    }
+
+    public List<Shard> getShards() {
+        return Collections.unmodifiableList(shards);
+    }
+
+    public void addListener(GameStateListener listener) {
+        for (Shard shard : shards) {
+            shard.connecter.addListener(listener);
+        }
+    }
+
+    public void setRecorder(Transcript.Recorder recorder) {
+        for (Shard shard : shards) {
+            shard.connecter.setRecorder(recorder);
+        }
+    }
+
+    /**
+     * Every account's sessions. Also learns which account owns each one, so they can be resumed.
+     */
+    public List<SessionSummary> listSessions() throws Exception {
+        List<SessionSummary> all = new ArrayList<>();
+        for (Shard shard : shards) {
+            List<SessionSummary> sessions = shard.call(() -> shard.connecter.listSessions());
+            for (SessionSummary session : sessions) {
+                owners.putIfAbsent(session.sessionId, shard);
+            }
+            all.addAll(sessions);
+        }
+        return all;
+    }
+
+    public GameState startGame() throws Exception {
+        Shard shard;
+        // count the session before it starts, so concurrent starts see it
+        synchronized (placement) {
+            shard = choose();
+            shard.sessions.incrementAndGet();
+        }
+        try {
+            GameState state = shard.call(() -> shard.connecter.startGame());
+            shard.open.add(state.sessionId);
+            owners.put(state.sessionId, shard);
+            return state;
+        } catch (Exception e) {
+            shard.sessions.decrementAndGet();
+            throw e;
+        }
+    }
+
+    public GameState newGame(UUID sessionId) throws Exception {
+        Shard shard = owner(sessionId);
+        return shard.call(() -> shard.connecter.newGame(sessionId));
+    }
+
+    public GameState placeBet(UUID sessionId, int amount) throws Exception {
+        Shard shard = owner(sessionId);
+        return shard.call(() -> shard.connecter.placeBet(sessionId, amount));
+    }
+
+    public GameState hit(UUID sessionId) throws Exception {
+        Shard shard = owner(sessionId);
+        return shard.call(() -> shard.connecter.hit(sessionId));
+    }
+
+    public GameState stand(UUID sessionId) throws Exception {
+        Shard shard = owner(sessionId);
+        return shard.call(() -> shard.connecter.stand(sessionId));
+    }
+
+    public GameState resumeSession(UUID sessionId) throws Exception {
+        Shard shard = owner(sessionId);
+        GameState state = shard.call(() -> shard.connecter.resumeSession(sessionId));
+        if (shard.open.add(sessionId)) {
+            shard.sessions.incrementAndGet();
+        }
+        return state;
+    }
+
+    public void finishGame(UUID sessionId) throws Exception {
+        Shard shard = owner(sessionId);
+        try {
+            shard.call(() -> {
+                shard.connecter.finishGame(sessionId);
+                return null;
+            });
+        } finally {
+            release(sessionId);
+        }
+    }
+
+    /**
+     * Stops counting the session against its account's load, so a session given up on
+     * doesn't push new ones away from the account for good.
+     */
+    @Override
+    public void release(UUID sessionId) {
+        Shard shard = owners.remove(sessionId);
+        if (shard != null && shard.open.remove(sessionId)) {
+            shard.sessions.decrementAndGet();
+        }
+    }
+
+    private Shard choose() {
+        double fastest = Double.MAX_VALUE;
+        for (Shard shard : shards) {
+            if (shard.latencyNanos > 0) {
+                fastest = Math.min(fastest, shard.latencyNanos);
+            }
+        }
+        if (fastest == Double.MAX_VALUE) {
+            fastest = 1;
+        }
+        Shard best = null;
+        double bestCost = Double.MAX_VALUE;
+        boolean bestOpen = true;
+        for (Shard shard : shards) {
+            boolean open = shard.connecter.getCircuitBreaker().getState() == CircuitBreaker.State.OPEN;
+            // an account not heard from yet is assumed to be as fast as the fastest, so it gets tried
+            double latency = shard.latencyNanos > 0 ? shard.latencyNanos : fastest;
+            double cost = (shard.getLoad() + 1) * latency;
+            if (best == null || (bestOpen && !open) || (open == bestOpen && cost < bestCost)) {
+                best = shard;
+                bestCost = cost;
+                bestOpen = open;
+            }
+        }
+        return best;
+    }
+
+    private Shard owner(UUID sessionId) throws Exception {
+        Shard shard = owners.get(sessionId);
+        if (shard != null) {
+            return shard;
+        }
+        // a session from before this pool was made; find out whose it is. A burst of
+        // these (resuming a fleet, say) shares one round of session lists: whoever waited
+        // while another lookup ran uses its answer instead of listing again.
+        long seen = lookups.get();
+        synchronized (lookup) {
+            shard = owners.get(sessionId);
+            if (shard == null && lookups.get() == seen) {
+                listSessions();
+                lookups.incrementAndGet();
+                shard = owners.get(sessionId);
+            }
+        }
+        if (shard == null) {
+            throw new IllegalArgumentException("No account owns session " + sessionId);
+        }
+        return shard;
+    }
+
+    @Override
+    public String toString()
+    {
+        StringBuilder sb = new StringBuilder();
+        for (Shard shard : shards) {
+            sb.append(shard).append('\n');
+        }
+        return sb.toString();
+    }
+
+    /**
+     * One account, its connecter and what the pool has seen of it.
+     */
+    public static class Shard
+    {
+        private final Account account;
+        private final ClientConnecter connecter;
+        // sessions started or resumed through the pool and not finished yet
+        private final Set<UUID> open = ConcurrentHashMap.newKeySet();
+        // open sessions plus starts still waiting for an answer
+        private final AtomicInteger sessions = new AtomicInteger();
+        private volatile double latencyNanos;
+
+        Shard(Account account, ClientConnecter connecter)
+        {
+            this.account = account;
+            this.connecter = connecter;
+        }
+
+        public Account getAccount() {
+            return account;
+        }
+
+        public ClientConnecter getConnecter() {
+            return connecter;
+        }
+
+        public int getSessions() {
+            return sessions.get();
+        }
+
+        public int getLoad() {
+            return sessions.get() + connecter.getLimiter().getInFlight();
+        }
+
+        public double getLatencyMillis() {
+            return latencyNanos / 1e6;
+        }
+
+        private <T> T call(Call<T> call) throws Exception {
+            long start = System.nanoTime();
+            try {
+                return call.run();
+            } finally {
+                observe(System.nanoTime() - start);
+            }
+        }
+
+        private synchronized void observe(long nanos) {
+            latencyNanos = latencyNanos == 0 ? nanos : latencyNanos + LATENCY_WEIGHT * (nanos - latencyNanos);
+        }
+
+        @Override
+        public String toString()
+        {
+            ConcurrencyLimiter limiter = connecter.getLimiter();
+            return String.format("%s: %d sessions, %d/%d in flight, %.1f ms, breaker %s", account, sessions.get(),
+                limiter.getInFlight(), limiter.getLimit(), getLatencyMillis(), connecter.getCircuitBreaker().getState());
+        }
+    }
+
+    private interface Call<T>
+    {
+        T run() throws Exception;
+    }
+}
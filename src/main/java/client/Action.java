@@ -0,0 +1,25 @@
+package client;
+
+/**
+ * The server calls, one per endpoint.
+ */
+public enum Action
+{
+    START,
+    BET,
+    HIT,
+    STAND,
+    RESET,
+    RESUME,
+    FINISH,
+    LIST;
+
+    private static final Action[] VALUES = values();
+
+    static Action fromByte(byte code) {
+        if (code < 0 || code >= VALUES.length) {
+            throw new IllegalArgumentException("Bad action code: " + code);
+        }
+        return VALUES[code];
+    }
+}
@@ -0,0 +1,36 @@
+package client;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * The calls the Blackjack server supports.
+ * ClientConnecter implements this over HTTP and LocalBlackjackEngine implements
+ * it in-process, so bots can be written once and run against either.
+ */
+public interface BlackjackApi
+{
+    List<SessionSummary> listSessions() throws Exception;
+
+    GameState startGame() throws Exception;
+
+    GameState newGame(UUID sessionId) throws Exception;
+
+    GameState placeBet(UUID sessionId, int amount) throws Exception;
+
+    GameState hit(UUID sessionId) throws Exception;
+
+    GameState stand(UUID sessionId) throws Exception;
+
+    GameState resumeSession(UUID sessionId) throws Exception;
+
+    void finishGame(UUID sessionId) throws Exception;
+
+    /**
+     * The caller is done with the session without finishing it, say because a call
+     * failed. Implementations that keep anything per session let it go; the session
+     * itself stays on the server. Does nothing once the session is finished.
+     */
+    default void release(UUID sessionId) {
+    }
+}
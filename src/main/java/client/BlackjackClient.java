@@ -1,5 +1,6 @@
 package client;
 
+import java.nio.file.Path;
 import java.util.List;
 import java.util.Scanner;
 import java.util.UUID;
@@ -9,9 +10,18 @@ public class BlackjackClient {
     private static final String BASE_URL = "http://euclid.knox.edu:8080/api/blackjack";
     private static final String USERNAME = "jspacco"; // replace with your username
     private static final String PASSWORD = "12347"; // replace with your from the file posted to Classroom
+    // last seen state of each session, so reconnecting usually needs no resume call
+    private static final Path STATE_CACHE = Path.of("session-cache.json");
 
     public static void main(String[] args) throws Exception {
-        ClientConnecter clientConnecter = new ClientConnecter(BASE_URL, USERNAME, PASSWORD);
+        // the first account in accounts.txt, if there is one
+        Account account = Account.firstOr(Account.DEFAULT_FILE, new Account(USERNAME, PASSWORD));
+        ClientConnecter clientConnecter = new ClientConnecter(BASE_URL, account.username, account.password);
+        SessionStateCache stateCache = new SessionStateCache();
+        stateCache.load(STATE_CACHE);
+        clientConnecter.addListener(stateCache);
+        LiveStats liveStats = new LiveStats();
+        clientConnecter.addListener(liveStats);
         
         Scanner input = new Scanner(System.in);
 
@@ -20,7 +30,7 @@ public class BlackjackClient {
 
         // List sessions
         System.out.println("Available sessions:");
-        List<SessionSummary> sessions = clientConnecter.listSessions();
+        List<SessionSummary> sessions = stateCache.listSessions(clientConnecter);
         int sessionNum = 1;
         for (SessionSummary session : sessions) {
             System.out.println("session number: " + sessionNum + " with Session ID: " + session.sessionId + ", Balance: " + session.balance);
@@ -58,7 +68,13 @@ public class BlackjackClient {
         } else {
             // Connect to an existing session
             System.out.println("Connecting to session ID: " + sessionId);
-            state = clientConnecter.resumeSession(sessionId);
+            SessionSummary summary = null;
+            for (SessionSummary session : sessions) {
+                if (session.sessionId.equals(sessionId)) {
+                    summary = session;
+                }
+            }
+            state = summary == null ? clientConnecter.resumeSession(sessionId) : stateCache.resume(clientConnecter, summary);
             
         }
         
@@ -113,9 +129,12 @@ public class BlackjackClient {
             state = clientConnecter.newGame(state.sessionId);
         }
 
+        System.out.println(liveStats.snapshot().toLine());
         System.out.println("Thanks for playing!");
         input.close();
+        // finishing drops the session from the cache (see SessionStateCache.onFinished)
         clientConnecter.finishGame(state.sessionId);
+        stateCache.save(STATE_CACHE);
 
     }    
 
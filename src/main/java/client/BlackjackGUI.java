@@ -1,29 +1,22 @@
 package client;
 
-import java.awt.Component;
-import java.awt.Dialog;
-import java.awt.event.MouseAdapter;
-import java.awt.event.MouseEvent;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
-import java.util.Random;
+import java.awt.BorderLayout;
+import java.awt.FlowLayout;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
 
-import javax.swing.DefaultListModel;
-import javax.swing.ImageIcon;
 import javax.swing.JButton;
-import javax.swing.JDialog;
 import javax.swing.JFrame;
 import javax.swing.JLabel;
-import javax.swing.JList;
 import javax.swing.JMenu;
 import javax.swing.JMenuBar;
 import javax.swing.JMenuItem;
 import javax.swing.JOptionPane;
 import javax.swing.JPanel;
-import javax.swing.JScrollPane;
-import javax.swing.ListSelectionModel;
+import javax.swing.JSpinner;
+import javax.swing.SpinnerNumberModel;
 import javax.swing.SwingUtilities;
 
 public class BlackjackGUI extends JFrame {
@@ -31,7 +24,9 @@ public class BlackjackGUI extends JFrame {
 
     private JButton hitButton;
     private JButton standButton;
-    
+    private JButton dealButton;
+    private JSpinner betSpinner;
+    private JLabel statusLabel;
 
     private String BASE_URL = "http://localhost:8080/api/blackjack";
     private String USERNAME = "jspacco";
@@ -39,9 +34,12 @@ public class BlackjackGUI extends JFrame {
     private ClientConnecter clientConnecter;
 
     private CardPanel cardPanel;
-    private Map<Card, ImageIcon> cardImages;
-    private Random random = new Random();
-    private UUID sessionId;
+    private CardImages cardImages;
+    private TableUpdater tableUpdater;
+    private SessionBrowser sessionBrowser;
+    private SessionStateCache stateCache = new SessionStateCache();
+    private LiveStats liveStats = new LiveStats();
+    private volatile UUID sessionId;
 
     public BlackjackGUI() {
         setTitle("Blackjack Game");
@@ -52,26 +50,46 @@ public class BlackjackGUI extends JFrame {
         hitButton = new JButton("Hit");
         standButton = new JButton("Stand");
         cardPanel = new CardPanel(hitButton, standButton, cardImages);
-        setContentPane(cardPanel);
 
-        // now set the action listeners for the hit/stand buttons
+        // bet and deal controls and the balance along the bottom
+        dealButton = new JButton("Deal");
+        betSpinner = new JSpinner(new SpinnerNumberModel(BlackjackRules.DEFAULT_BET, BlackjackRules.BET_UNIT,
+            100 * BlackjackRules.BET_UNIT, BlackjackRules.BET_UNIT));
+        statusLabel = new JLabel("File > New Game to start");
+        JPanel controls = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        controls.add(new JLabel("Bet:"));
+        controls.add(betSpinner);
+        controls.add(dealButton);
+        controls.add(statusLabel);
+
+        JPanel content = new JPanel(new BorderLayout());
+        content.add(cardPanel, BorderLayout.CENTER);
+        content.add(controls, BorderLayout.SOUTH);
+        content.add(new StatsPanel(liveStats), BorderLayout.NORTH);
+        setContentPane(content);
+
+        tableUpdater = new TableUpdater(cardPanel, hitButton, standButton, dealButton, statusLabel);
+
+        // now set the action listeners for the buttons
+        // server calls are async so the EDT never waits on the network;
+        // the answers go through tableUpdater, which changes only what differs
         hitButton.addActionListener(e -> {
-            System.out.println("Hit button clicked");
-            List<Card> cards = List.of(Card.values());
-            cardPanel.addPlayerCard(cards.get(random.nextInt(cards.size())));
-            repaint(); 
+            tableUpdater.expectCard();
+            show(clientConnecter.hitAsync(sessionId), "hit");
         });
         standButton.addActionListener(e -> {
-            System.out.println("Stand button clicked");
-            List<Card> cards = List.of(Card.values());
-            cardPanel.addDealerCard(cards.get(random.nextInt(cards.size())));
-            repaint(); 
+            tableUpdater.expectResponse();
+            show(clientConnecter.standAsync(sessionId), "stand");
         });
-
-        
+        dealButton.addActionListener(e -> deal());
 
         // client connecter to make API calls on the server
-        clientConnecter = new ClientConnecter(BASE_URL, USERNAME, PASSWORD);
+        // using the first account in accounts.txt, if there is one
+        Account account = Account.firstOr(Account.DEFAULT_FILE, new Account(USERNAME, PASSWORD));
+        clientConnecter = new ClientConnecter(BASE_URL, account.username, account.password);
+        clientConnecter.addListener(stateCache);
+        clientConnecter.addListener(liveStats);
+        liveStats.start(1, TimeUnit.SECONDS);
 
         setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
         setLocationRelativeTo(null);
@@ -90,34 +108,66 @@ public class BlackjackGUI extends JFrame {
         
         menuBar.add(fileMenu);
         addMenuItem(fileMenu, "Reconnect", () -> {
-            System.out.println("Load clicked");
-            try {
-                List<SessionSummary> sessionSummaryList = clientConnecter.listSessions();
-                for (SessionSummary session : sessionSummaryList) {
-                    System.out.println("Session ID: " + session.sessionId + ", Balance: " + session.balance);
-                }
-                
-            } catch (Exception e) {
-                JOptionPane.showMessageDialog(this, "Error loading game: " + e.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+            if (sessionBrowser == null) {
+                sessionBrowser = new SessionBrowser(this, clientConnecter, this::resume);
+                sessionBrowser.setStateCache(stateCache);
             }
+            sessionBrowser.show();
         });
         addMenuItem(fileMenu, "New Game", () -> {
-            System.out.println("New Game clicked");
-            try {
-                GameState state = clientConnecter.startGame();
-                System.out.println(state);
+            tableUpdater.expectResponse();
+            show(clientConnecter.startGameAsync().thenApply(state -> {
                 sessionId = state.sessionId;
-                // TODO: use the game state to update the UI
-            } catch (Exception e) {
-                JOptionPane.showMessageDialog(this, "Error starting new game: " + e.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
-            }
+                return state;
+            }), "starting new game");
         });
 
     }
 
-    // convert "THREE OF HEARTS" from server to Card.THREE_OF_HEARTS
-    private Card getCard(String cardName) {
-        return Card.valueOf(cardName.toUpperCase().replace(' ', '_'));
+    private void resume(UUID id) {
+        // the browser's list confirms the cache, so if the state we saw last is still current, skip the call
+        SessionSummary summary = sessionBrowser.getModel().get(id);
+        GameState cached = summary == null ? null : stateCache.getIfCurrent(summary);
+        if (cached != null) {
+            sessionId = id;
+            tableUpdater.update(cached);
+            return;
+        }
+        tableUpdater.expectResponse();
+        show(clientConnecter.resumeSessionAsync(id).thenApply(state -> {
+            sessionId = state.sessionId;
+            return state;
+        }), "resuming game");
+    }
+
+    private void deal() {
+        GameState shown = tableUpdater.getShown();
+        int bet = (Integer) betSpinner.getValue();
+        tableUpdater.expectResponse();
+        // only the bet's answer is shown, so the buttons stay off until the whole deal is done
+        CompletableFuture<GameState> call = BlackjackRules.RESOLVED.equals(shown.phase)
+            ? clientConnecter.newGameAsync(sessionId).thenCompose(reset -> clientConnecter.placeBetAsync(sessionId, bet))
+            : clientConnecter.placeBetAsync(sessionId, bet);
+        show(call, "placing bet");
+    }
+
+    // shows the result when it arrives, or the error and the last good state
+    private void show(CompletableFuture<GameState> call, String what) {
+        call.whenComplete((state, error) -> {
+            if (error != null) {
+                showError("Error " + what, error);
+            } else {
+                tableUpdater.update(state);
+            }
+        });
+    }
+
+    private void showError(String message, Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        SwingUtilities.invokeLater(() -> {
+            tableUpdater.revert();
+            JOptionPane.showMessageDialog(this, message + ": " + cause.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+        });
     }
 
     private void addMenuItem(JMenu menu, String name, Runnable action) {
@@ -127,41 +177,8 @@ public class BlackjackGUI extends JFrame {
     }
 
     private void loadCards() {
-        // Load card images and add them to the main panel
-        // This is where you would implement the logic to load and display cards
-        cardImages = new HashMap<>();
-        for (Card card : Card.values()) {
-            ImageIcon cardImage = new ImageIcon(getClass().getResource("/assets/" + card.getFilename()));
-            cardImages.put(card, cardImage);
-        }
-    }
-
-    public void showListPopup(String title, java.util.List<String> items) {
-        JDialog dialog = new JDialog(SwingUtilities.getWindowAncestor(this), title, Dialog.ModalityType.APPLICATION_MODAL);
-        dialog.setDefaultCloseOperation(JDialog.DISPOSE_ON_CLOSE);
-        dialog.setSize(300, 200);
-        dialog.setLocationRelativeTo(this);
-
-        JList<String> list = new JList<>(new DefaultListModel<>());
-        DefaultListModel<String> model = (DefaultListModel<String>) list.getModel();
-        for (String item : items) {
-            model.addElement(item);
-        }
-
-        list.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
-        list.addMouseListener(new MouseAdapter() {
-            public void mouseClicked(MouseEvent e) {
-                if (e.getClickCount() == 2) { // double click to select
-                    String selected = list.getSelectedValue();
-                    System.out.println("Selected: " + selected);
-                    dialog.dispose();
-                }
-            }
-        });
-
-        JScrollPane scrollPane = new JScrollPane(list);
-        dialog.add(scrollPane);
-        dialog.setVisible(true);
+        // decoded in the background so the window shows up right away
+        cardImages = CardImages.loadAsync();
     }
 
     public static void main(String[] args) {
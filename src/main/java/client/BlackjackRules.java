@@ -0,0 +1,112 @@
+package client;
+
+import java.util.List;
+
+/**
+ * The rules the server plays by: a single 52 card deck that is reshuffled when it
+ * runs low, bets in multiples of 10, dealer stands on all 17s, blackjack pays 3:2.
+ */
+public class BlackjackRules
+{
+    public static final int DECK_SIZE = 52;
+    // the deck is reshuffled before a hand is dealt if fewer than this many cards are left
+    public static final int RESHUFFLE_BELOW = 15;
+    public static final int BET_UNIT = 10;
+    public static final int DEFAULT_BET = 10;
+    public static final int DEALER_STANDS_ON = 17;
+    public static final int BLACKJACK = 21;
+
+    public static final String BETTING = "BETTING";
+    public static final String PLAYER_TURN = "PLAYER_TURN";
+    public static final String RESOLVED = "RESOLVED";
+
+    public static final String PLAYER_WINS = "PLAYER_WINS";
+    public static final String PLAYER_BLACKJACK = "PLAYER_BLACKJACK";
+    public static final String DEALER_WINS = "DEALER_WINS";
+    public static final String PUSH = "PUSH";
+
+    // Every phase and outcome in a fixed order, so one can be stored as a byte: its index,
+    // or -1 for null. Stored hands depend on the order, so only ever add to the end.
+    public static final List<String> PHASES = List.of(BETTING, PLAYER_TURN, RESOLVED);
+    public static final List<String> OUTCOMES = List.of(PLAYER_WINS, PLAYER_BLACKJACK, DEALER_WINS, PUSH);
+
+    // Best total for a hand where every ace was counted as 1.
+    public static int bestTotal(int hardTotal, boolean hasAce) {
+        return hasAce && hardTotal + 10 <= BLACKJACK ? hardTotal + 10 : hardTotal;
+    }
+
+    public static int handValue(List<Card> cards) {
+        int hardTotal = 0;
+        boolean hasAce = false;
+        for (int i = 0; i < cards.size(); i++) {
+            Card card = cards.get(i);
+            if (card.isAce()) {
+                hasAce = true;
+                hardTotal += 1;
+            } else {
+                hardTotal += card.getValue();
+            }
+        }
+        return bestTotal(hardTotal, hasAce);
+    }
+
+    public static boolean isBlackjack(List<Card> cards) {
+        return cards.size() == 2 && handValue(cards) == BLACKJACK;
+    }
+
+    public static boolean isValidBet(int amount) {
+        return amount > 0 && amount % BET_UNIT == 0;
+    }
+
+    public static byte phaseCode(String phase) {
+        return code(PHASES, phase);
+    }
+
+    // the constant for a code from phaseCode, so it can be compared with ==
+    public static String phase(byte code) {
+        return fromCode(PHASES, code);
+    }
+
+    public static byte outcomeCode(String outcome) {
+        return code(OUTCOMES, outcome);
+    }
+
+    public static String outcome(byte code) {
+        return fromCode(OUTCOMES, code);
+    }
+
+    private static byte code(List<String> names, String name) {
+        if (name == null) {
+            return -1;
+        }
+        int index = names.indexOf(name);
+        if (index < 0) {
+            throw new IllegalArgumentException("Unknown phase or outcome: " + name);
+        }
+        return (byte) index;
+    }
+
+    private static String fromCode(List<String> names, byte code) {
+        if (code == -1) {
+            return null;
+        }
+        if (code < 0 || code >= names.size()) {
+            throw new IllegalArgumentException("Bad phase or outcome code: " + code);
+        }
+        return names.get(code);
+    }
+
+    // Change in balance for a resolved hand.
+    public static int payout(String outcome, int bet) {
+        switch (outcome) {
+            case PLAYER_WINS:
+                return bet;
+            case PLAYER_BLACKJACK:
+                return bet * 3 / 2;
+            case DEALER_WINS:
+                return -bet;
+            default:
+                return 0;
+        }
+    }
+}
@@ -1,5 +1,9 @@
 package client;
 
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
 public enum Card
 {
     TWO_OF_CLUBS("2C"),
@@ -53,21 +57,86 @@ public enum Card
     JACK_OF_SPADES("JS"),
     QUEEN_OF_SPADES("QS"),
     KING_OF_SPADES("KS"),
-    ACE_OF_SPADES("AS");
+    ACE_OF_SPADES("AS"),
+    // the dealer's face down card, sent by the server as "???"
+    HIDDEN("Back");
+
+    private static final String HIDDEN_NAME = "???";
+    private static final Card[] VALUES = values();
+    // every way a card can be written: "2C", "TWO OF CLUBS" and "TWO_OF_CLUBS"
+    private static final Map<String, Card> INDEX = new HashMap<>();
+    static {
+        for (Card c : VALUES) {
+            INDEX.put(c.string, c);
+            INDEX.put(c.serverName, c);
+            INDEX.put(c.name(), c);
+        }
+    }
 
     private String string;
+    private String serverName;
+    private int rank;
+    private int value;
     Card(String card) {
         this.string = card;
+        if (card.equals("Back")) {
+            this.serverName = HIDDEN_NAME;
+            return;
+        }
+        this.serverName = name().replace('_', ' ');
+        switch (card.substring(0, card.length() - 1)) {
+            case "A": rank = 1; break;
+            case "J": rank = 11; break;
+            case "Q": rank = 12; break;
+            case "K": rank = 13; break;
+            default: rank = Integer.parseInt(card.substring(0, card.length() - 1));
+        }
+        this.value = rank == 1 ? 11 : Math.min(rank, 10);
     }
 
+    /**
+     * Looks up a card by its short code ("2C"), server name ("TWO OF CLUBS")
+     * or enum name. "???" is the HIDDEN card.
+     */
     public static Card fromString(String card) {
-        card = card.toUpperCase().replace(' ', '_');
-        for (Card c : Card.values()) {
-            if (c.string.equals(card)) {
-                return c;
-            }
+        Card c = INDEX.get(card);
+        if (c == null) {
+            c = INDEX.get(card.trim().toUpperCase().replace('_', ' '));
+        }
+        if (c == null) {
+            throw new IllegalArgumentException("Invalid card: " + card);
         }
-        throw new IllegalArgumentException("Invalid card: " + card);
+        return c;
+    }
+
+    /**
+     * A new array of the 52 real cards, in enum order.
+     */
+    public static Card[] newDeck() {
+        return Arrays.copyOf(VALUES, BlackjackRules.DECK_SIZE);
+    }
+
+    // 1 for an ace, 2-10, then 11, 12, 13 for jack, queen, king; 0 for HIDDEN
+    public int getRank() {
+        return rank;
+    }
+
+    // blackjack value, counting an ace as 11; 0 for HIDDEN
+    public int getValue() {
+        return value;
+    }
+
+    public boolean isAce() {
+        return rank == 1;
+    }
+
+    public boolean isHidden() {
+        return this == HIDDEN;
+    }
+
+    // the name the server uses, e.g. "TWO OF CLUBS"
+    public String getServerName() {
+        return serverName;
     }
 
     public String toString() {
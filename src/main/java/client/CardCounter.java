@@ -0,0 +1,147 @@
+package client;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Keeps the running count for one session.
+ * Feed it every GameState of the session, in order; it only counts cards it has
+ * not counted before, and starts over when the server reports a reshuffle.
+ * Updating does not allocate, so it is cheap enough to run on every response.
+ */
+public class CardCounter
+{
+    private final CountingSystem system;
+    private int runningCount;
+    private int cardsSeen;
+    private int cardsRemaining = BlackjackRules.DECK_SIZE;
+    // cards seen since the shuffle by blackjack value, ace as 1: index 1 is aces, 10 is tens and faces
+    private final int[] seenByValue = new int[11];
+
+    // how many of the current hand's cards have been counted
+    private int playerCounted;
+    private int dealerCounted;
+    private boolean reshuffleCounted;
+    // how many of the current hand's cards, in the order they were dealt, came from the deck before a reshuffle
+    private int oldDeckCards;
+    // to tell the next hand from this one: its first cards, and whether it is over
+    private Card firstPlayerCard;
+    private Card upCard;
+    private boolean handOver;
+
+    public CardCounter(CountingSystem system)
+    {
+        this.system = system;
+        this.runningCount = system.initialCount(1);
+    }
+
+    public synchronized void update(GameState state) {
+        List<Card> player = state.getPlayerHand();
+        List<Card> dealer = state.getDealerHand();
+        if (isNewHand(state, player, dealer)) {
+            playerCounted = 0;
+            dealerCounted = 0;
+            reshuffleCounted = false;
+            oldDeckCards = 0;
+        }
+        if (state.reshuffled && !reshuffleCounted) {
+            // Only the cards dealt since the shuffle belong to the new count. The server
+            // says how many that is through cardsRemaining; the rest of the cards on the
+            // table, the first ones dealt, came from the old deck.
+            int onTable = player.size() + dealer.size();
+            reset();
+            reshuffleCounted = true;
+            oldDeckCards = Math.max(0, onTable - (BlackjackRules.DECK_SIZE - state.cardsRemaining));
+        }
+        cardsRemaining = state.cardsRemaining;
+
+        for (int i = playerCounted; i < player.size(); i++) {
+            if (dealOrder(i, true, player.size()) >= oldDeckCards) {
+                count(player.get(i));
+            }
+        }
+        playerCounted = player.size();
+
+        // the hole card is counted once it is turned over
+        while (dealerCounted < dealer.size() && !dealer.get(dealerCounted).isHidden()) {
+            if (dealOrder(dealerCounted, false, player.size()) >= oldDeckCards) {
+                count(dealer.get(dealerCounted));
+            }
+            dealerCounted++;
+        }
+
+        firstPlayerCard = player.isEmpty() ? null : player.get(0);
+        upCard = dealer.isEmpty() ? null : dealer.get(0);
+        handOver = state.gameOver;
+    }
+
+    // Hand sizes alone miss a new hand when the response between hands was never seen,
+    // so a settled hand followed by one in play, or different first cards, also count.
+    private boolean isNewHand(GameState state, List<Card> player, List<Card> dealer) {
+        if (player.size() < playerCounted || dealer.size() < dealerCounted) {
+            return true;
+        }
+        if (handOver && !state.gameOver) {
+            return true;
+        }
+        return (playerCounted > 0 && !player.isEmpty() && player.get(0) != firstPlayerCard)
+            || (dealerCounted > 0 && !dealer.isEmpty() && dealer.get(0) != upCard);
+    }
+
+    // When a card was dealt in its hand: player, dealer, player, dealer, then the
+    // player's hits, then the dealer's draws.
+    private static int dealOrder(int index, boolean player, int playerCards) {
+        if (index < 2) {
+            return player ? 2 * index : 2 * index + 1;
+        }
+        return player ? index + 2 : playerCards + index;
+    }
+
+    public synchronized int getRunningCount() {
+        return runningCount;
+    }
+
+    /**
+     * Running count per deck left, using the server's cardsRemaining.
+     */
+    public synchronized double getTrueCount() {
+        return runningCount * (double) BlackjackRules.DECK_SIZE / Math.max(cardsRemaining, 1);
+    }
+
+    public synchronized int getCardsSeen() {
+        return cardsSeen;
+    }
+
+    /**
+     * Fills counts with the cards not yet seen since the shuffle: counts[0] is aces,
+     * counts[1] twos, ... counts[9] tens and faces. This is the pool the next cards,
+     * including the dealer's hole card, come from.
+     */
+    public synchronized void getUnseen(int[] counts) {
+        for (int value = 1; value <= 10; value++) {
+            int inDeck = value == 10 ? 16 : 4;
+            counts[value - 1] = Math.max(0, inDeck - seenByValue[value]);
+        }
+    }
+
+    public CountingSystem getSystem() {
+        return system;
+    }
+
+    // start over, as after a shuffle
+    public synchronized void reset() {
+        runningCount = system.initialCount(1);
+        cardsSeen = 0;
+        Arrays.fill(seenByValue, 0);
+        cardsRemaining = BlackjackRules.DECK_SIZE;
+        playerCounted = 0;
+        dealerCounted = 0;
+        oldDeckCards = 0;
+    }
+
+    private void count(Card card) {
+        runningCount += system.tag(card);
+        cardsSeen++;
+        seenByValue[card.isAce() ? 1 : card.getValue()]++;
+    }
+}
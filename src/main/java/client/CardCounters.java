@@ -0,0 +1,45 @@
+package client;
+
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * One CardCounter per session, kept up to date from a ClientConnecter:
+ *
+ *     CardCounters counters = new CardCounters(CountingSystem.HI_LO);
+ *     clientConnecter.addListener(counters);
+ *     ...
+ *     double trueCount = counters.get(sessionId).getTrueCount();
+ *
+ * A session's counter is dropped when the session is finished.
+ */
+public class CardCounters implements GameStateListener
+{
+    private final CountingSystem system;
+    private final ConcurrentHashMap<UUID, CardCounter> counters = new ConcurrentHashMap<>();
+
+    public CardCounters(CountingSystem system)
+    {
+        this.system = system;
+    }
+
+    @Override
+    public void onGameState(Action action, GameState state) {
+        if (state.sessionId != null) {
+            get(state.sessionId).update(state);
+        }
+    }
+
+    @Override
+    public void onFinished(UUID sessionId) {
+        remove(sessionId);
+    }
+
+    public CardCounter get(UUID sessionId) {
+        return counters.computeIfAbsent(sessionId, id -> new CardCounter(system));
+    }
+
+    public void remove(UUID sessionId) {
+        counters.remove(sessionId);
+    }
+}
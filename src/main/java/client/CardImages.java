@@ -0,0 +1,165 @@
+package client;
+
+import java.awt.AlphaComposite;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.GraphicsEnvironment;
+import java.awt.RenderingHints;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.concurrent.CompletableFuture;
+
+import javax.imageio.ImageIO;
+
+/**
+ * Card pictures, including the back used for the dealer's hole card, looked up by Card ordinal.
+ *
+ * The PNGs are decoded on a background thread and copied into images in the screen's
+ * own format, which Java2D can keep in video memory and draw without converting.
+ * Images scaled to a size are built once and kept until a different size is asked
+ * for, so repainting a resized window costs a plain image copy per card.
+ */
+public class CardImages
+{
+    // size of the images in /assets
+    public static final int WIDTH = 68;
+    public static final int HEIGHT = 100;
+
+    private static final Card[] CARDS = Card.values();
+
+    private final CompletableFuture<BufferedImage[]> loaded;
+    private volatile Scaled scaled;
+
+    private CardImages(CompletableFuture<BufferedImage[]> loaded)
+    {
+        this.loaded = loaded;
+    }
+
+    /**
+     * Starts loading in the background and returns at once. Until loading is done,
+     * get() returns null and callers should draw nothing (or a placeholder). A load
+     * that fails is reported once on stderr, and get() keeps returning null.
+     */
+    public static CardImages loadAsync() {
+        CompletableFuture<BufferedImage[]> loaded = new CompletableFuture<>();
+        Thread loader = new Thread(() -> {
+            try {
+                loaded.complete(loadAll());
+            } catch (Throwable e) {
+                System.err.println("Loading card images failed, cards will not be shown: " + e);
+                loaded.completeExceptionally(e);
+            }
+        }, "card-images");
+        loader.setDaemon(true);
+        loader.start();
+        return new CardImages(loaded);
+    }
+
+    // loads on the calling thread
+    public static CardImages load() {
+        return new CardImages(CompletableFuture.completedFuture(loadAll()));
+    }
+
+    /**
+     * Completes when every image has been loaded, e.g. to repaint once they are in.
+     */
+    public CompletableFuture<Void> ready() {
+        return loaded.thenApply(images -> null);
+    }
+
+    public boolean isReady() {
+        return loaded.isDone() && !loaded.isCompletedExceptionally();
+    }
+
+    // the image at its natural size, or null if not loaded yet
+    public BufferedImage get(Card card) {
+        BufferedImage[] images = loaded.getNow(null);
+        return images == null ? null : images[card.ordinal()];
+    }
+
+    /**
+     * The image scaled to the given size, or null if not loaded yet.
+     * Call from one thread (normally the EDT).
+     */
+    public BufferedImage get(Card card, int width, int height) {
+        if (width == WIDTH && height == HEIGHT) {
+            return get(card);
+        }
+        BufferedImage[] images = loaded.getNow(null);
+        if (images == null) {
+            return null;
+        }
+        Scaled current = scaled;
+        if (current == null || current.width != width || current.height != height) {
+            current = new Scaled(width, height);
+            scaled = current;
+        }
+        BufferedImage image = current.images[card.ordinal()];
+        if (image == null) {
+            image = copy(images[card.ordinal()], width, height);
+            current.images[card.ordinal()] = image;
+        }
+        return image;
+    }
+
+    private static BufferedImage[] loadAll() {
+        BufferedImage[] images = new BufferedImage[CARDS.length];
+        for (Card card : CARDS) {
+            try (InputStream in = CardImages.class.getResourceAsStream("/assets/" + card.getFilename())) {
+                if (in == null) {
+                    throw new IOException("Missing image for " + card + ": /assets/" + card.getFilename());
+                }
+                BufferedImage image = ImageIO.read(in);
+                if (image == null) {
+                    throw new IOException("Unreadable image for " + card + ": /assets/" + card.getFilename());
+                }
+                images[card.ordinal()] = copy(image, WIDTH, HEIGHT);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return images;
+    }
+
+    // draws the source into a new screen-compatible image of the given size
+    private static BufferedImage copy(BufferedImage source, int width, int height) {
+        BufferedImage image = compatibleImage(width, height);
+        Graphics2D g = image.createGraphics();
+        try {
+            g.setComposite(AlphaComposite.Src);
+            if (source.getWidth() != width || source.getHeight() != height) {
+                g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            }
+            g.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            g.dispose();
+        }
+        return image;
+    }
+
+    private static BufferedImage compatibleImage(int width, int height) {
+        if (GraphicsEnvironment.isHeadless()) {
+            return new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB_PRE);
+        }
+        GraphicsConfiguration config = GraphicsEnvironment.getLocalGraphicsEnvironment()
+            .getDefaultScreenDevice().getDefaultConfiguration();
+        return config.createCompatibleImage(width, height, Transparency.TRANSLUCENT);
+    }
+
+    private static class Scaled
+    {
+        final int width;
+        final int height;
+        final BufferedImage[] images = new BufferedImage[CARDS.length];
+
+        Scaled(int width, int height)
+        {
+            this.width = width;
+            this.height = height;
+        }
+    }
+}
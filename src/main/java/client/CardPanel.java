@@ -1,95 +1,322 @@
 package client;
 
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
-import java.util.Random;
-
-import javax.swing.ImageIcon;
 import javax.swing.JButton;
 import javax.swing.JPanel;
+import javax.swing.Timer;
 
 import java.awt.Color;
 import java.awt.Graphics;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
 
-public class CardPanel extends JPanel 
+/**
+ * The table: the dealer's cards on top, the player's below, and the hit/stand buttons.
+ *
+ * Each card sits in a fixed slot. Changing a slot repaints only that slot's rectangle,
+ * never the whole panel. New cards slide in from the deck and a card replacing the
+ * hole card flips over; all animation runs off one Swing timer at FRAME_RATE, which
+ * only runs while something is moving. Slots and rectangles are allocated up front,
+ * so animating creates no garbage.
+ */
+public class CardPanel extends JPanel
 {
     private static final long serialVersionUID = 1L;
 
+    // the layout below is for a panel this size; it is scaled to the actual size
+    private static final int DESIGN_WIDTH = 1000;
+    private static final int DESIGN_HEIGHT = 800;
+    // a single-deck hand can't have more cards than this
+    public static final int MAX_CARDS = 12;
+
+    public static final int FRAME_RATE = 60;
+    private static final long DEAL_NANOS = 250_000_000L;
+    private static final long FLIP_NANOS = 300_000_000L;
+
     private JButton hitButton;
     private JButton standButton;
 
-    private List<Card> dealerCards = new ArrayList<>();
-    private List<Card> playerCards = new ArrayList<>();
-    private Map<Card, ImageIcon> cardImages;
-    //private Random random;
+    private final Slot[] dealerSlots = new Slot[MAX_CARDS];
+    private final Slot[] playerSlots = new Slot[MAX_CARDS];
+    private int dealerCount;
+    private int playerCount;
+    private CardImages cardImages;
 
-    public CardPanel(JButton hitButton, JButton standButton, Map<Card, ImageIcon> cardImages)
+    private final Timer timer;
+    // animations are drawn as of this time, so a frame paints exactly what its tick asked to repaint
+    private long frameNanos;
+    private final Rectangle clip = new Rectangle();
+    private final Rectangle bounds = new Rectangle();
+
+    public CardPanel(JButton hitButton, JButton standButton, CardImages cardImages)
     {
         this.hitButton = hitButton;
         this.standButton = standButton;
         this.cardImages = cardImages;
+        for (int i = 0; i < MAX_CARDS; i++) {
+            dealerSlots[i] = new Slot(true, i);
+            playerSlots[i] = new Slot(false, i);
+        }
+        timer = new Timer(1000 / FRAME_RATE, e -> tick());
 
         // null layout manager is absolute positioning
         setLayout(null);
         setBackground(Color.GREEN.darker());
 
-        //loadCards();
+        // draw the cards as soon as they have loaded
+        cardImages.ready().thenRun(this::repaint);
 
         // add a hit and stand button
         // the actual click handler is defined in the BlackjackGUI class
-        hitButton.setBounds(50, 600, 100, 60);
         add(hitButton);
-        
-        standButton.setBounds(200, 600, 100, 60);
         add(standButton);
 
     }
 
+    @Override
+    public void doLayout() {
+        double scale = scale();
+        hitButton.setBounds((int) (50 * scale), (int) (600 * scale), 100, 60);
+        standButton.setBounds((int) (200 * scale), (int) (600 * scale), 100, 60);
+    }
+
     public void clearCards() {
-        dealerCards.clear();
-        playerCards.clear();
+        removeDealerCards(0);
+        removePlayerCards(0);
     }
 
     public void addDealerCard(Card card) {
-        dealerCards.add(card);
+        checkRoom(dealerCount);
+        dealerSlots[dealerCount++].deal(card);
     }
 
     public void addPlayerCard(Card card) {
-        playerCards.add(card);
+        checkRoom(playerCount);
+        playerSlots[playerCount++].deal(card);
+    }
+
+    /**
+     * Replaces a dealer card, flipping it over if it was face down.
+     */
+    public void setDealerCard(int index, Card card) {
+        if (index >= dealerCount) {
+            throw new IndexOutOfBoundsException("No dealer card " + index + " of " + dealerCount);
+        }
+        dealerSlots[index].replace(card);
+    }
+
+    public void setPlayerCard(int index, Card card) {
+        if (index >= playerCount) {
+            throw new IndexOutOfBoundsException("No player card " + index + " of " + playerCount);
+        }
+        playerSlots[index].replace(card);
+    }
+
+    // removes the dealer's cards from index on
+    public void removeDealerCards(int index) {
+        for (int i = index; i < dealerCount; i++) {
+            dealerSlots[i].clear();
+        }
+        dealerCount = Math.min(dealerCount, index);
+    }
+
+    public void removePlayerCards(int index) {
+        for (int i = index; i < playerCount; i++) {
+            playerSlots[i].clear();
+        }
+        playerCount = Math.min(playerCount, index);
+    }
+
+    public int getDealerCardCount() {
+        return dealerCount;
+    }
+
+    public int getPlayerCardCount() {
+        return playerCount;
+    }
+
+    public Card getDealerCard(int index) {
+        return dealerSlots[index].card;
+    }
+
+    public Card getPlayerCard(int index) {
+        return playerSlots[index].card;
+    }
+
+    private void checkRoom(int count) {
+        if (count == MAX_CARDS) {
+            throw new IllegalStateException("No room for more than " + MAX_CARDS + " cards");
+        }
+    }
+
+    private void tick() {
+        frameNanos = System.nanoTime();
+        boolean moving = false;
+        for (int i = 0; i < dealerCount; i++) {
+            moving |= dealerSlots[i].tick();
+        }
+        for (int i = 0; i < playerCount; i++) {
+            moving |= playerSlots[i].tick();
+        }
+        if (!moving) {
+            timer.stop();
+        }
+    }
+
+    private void startAnimating() {
+        frameNanos = System.nanoTime();
+        if (!timer.isRunning()) {
+            timer.start();
+        }
+    }
+
+    private double scale() {
+        if (getWidth() == 0 || getHeight() == 0) {
+            return 1;
+        }
+        double scale = Math.min((double) getWidth() / DESIGN_WIDTH, (double) getHeight() / DESIGN_HEIGHT);
+        return Math.max(0.5, Math.min(2, scale));
     }
 
     @Override
     public void paintComponent(Graphics g) {
         super.paintComponent(g);
 
-        int x = 100;
-        int y = 100;
-        // dealer cards
-        for (Card card : dealerCards) {
-            // Draw dealer cards
-            //System.out.println("Drawing dealer card: " + card);
-            ImageIcon cardImage = cardImages.get(card);
-            if (cardImage != null) {
-                System.out.println("Drawing dealer card: " + card);
-                g.drawImage(cardImage.getImage(), x, y, null);
-                x += cardImage.getIconWidth() + 10; 
+        clip.setBounds(0, 0, getWidth(), getHeight());
+        g.getClipBounds(clip);
+        for (int i = 0; i < dealerCount; i++) {
+            dealerSlots[i].paint(g);
+        }
+        for (int i = 0; i < playerCount; i++) {
+            playerSlots[i].paint(g);
+        }
+    }
+
+    /**
+     * One card position and whatever animation is running in it.
+     */
+    private class Slot
+    {
+        final boolean dealer;
+        final int index;
+        Card card;
+        // the card shown before a flip
+        Card previous;
+        long dealStart;
+        long flipStart;
+        boolean animating;
+        // where the card was last drawn, to repaint when it moves or goes
+        final Rectangle drawn = new Rectangle();
+
+        Slot(boolean dealer, int index)
+        {
+            this.dealer = dealer;
+            this.index = index;
+        }
+
+        void deal(Card card) {
+            this.card = card;
+            previous = null;
+            dealStart = System.nanoTime();
+            flipStart = 0;
+            animating = true;
+            startAnimating();
+            repaintAt(dealStart);
+        }
+
+        void replace(Card card) {
+            if (card == this.card) {
+                return;
             }
+            previous = this.card;
+            this.card = card;
+            if (previous == Card.HIDDEN) {
+                flipStart = System.nanoTime();
+                animating = true;
+                startAnimating();
+            } else {
+                previous = null;
+                flipStart = 0;
+            }
+            repaintAt(System.nanoTime());
         }
 
-        // player cards
-        x = 100; 
-        y = 500;
-        for (Card card : playerCards) {
-            System.out.println("Drawing player card: " + card);
-            // Draw player cards
-            ImageIcon cardImage = cardImages.get(card);
-            if (cardImage != null) {
-                g.drawImage(cardImage.getImage(), x, y, null);
-                x += cardImage.getIconWidth() + 10; 
+        void clear() {
+            card = null;
+            previous = null;
+            animating = false;
+            repaint(drawn.x, drawn.y, drawn.width, drawn.height);
+            drawn.setBounds(0, 0, 0, 0);
+        }
+
+        // repaints the old and new positions; returns whether still moving
+        boolean tick() {
+            if (!animating) {
+                return false;
             }
+            repaintAt(frameNanos);
+            animating = frameNanos - dealStart < DEAL_NANOS || (flipStart != 0 && frameNanos - flipStart < FLIP_NANOS);
+            return animating;
         }
-    }        
-    
+
+        private void repaintAt(long now) {
+            if (!drawn.isEmpty()) {
+                repaint(drawn.x, drawn.y, drawn.width, drawn.height);
+            }
+            boundsAt(now, drawn);
+            repaint(drawn.x, drawn.y, drawn.width, drawn.height);
+        }
+
+        // full card rectangle at the given time
+        private void boundsAt(long now, Rectangle r) {
+            double scale = scale();
+            int width = (int) Math.round(CardImages.WIDTH * scale);
+            int height = (int) Math.round(CardImages.HEIGHT * scale);
+            int x = (int) ((100 + index * (CardImages.WIDTH + 10)) * scale);
+            int y = (int) ((dealer ? 100 : 500) * scale);
+            double t = progress(now - dealStart, DEAL_NANOS);
+            if (t < 1) {
+                // slide in from the deck at the right of the table
+                double deckX = (DESIGN_WIDTH - 150) * scale;
+                double deckY = 300 * scale;
+                x = (int) (deckX + (x - deckX) * t);
+                y = (int) (deckY + (y - deckY) * t);
+            }
+            r.setBounds(x, y, width, height);
+        }
+
+        void paint(Graphics g) {
+            if (card == null) {
+                return;
+            }
+            boundsAt(animating ? frameNanos : Long.MAX_VALUE / 2, bounds);
+            if (!bounds.intersects(clip)) {
+                return;
+            }
+            Card shown = card;
+            int width = bounds.width;
+            if (flipStart != 0 && previous != null) {
+                // squeeze the old face to nothing, then widen the new one
+                double t = animating ? progress(frameNanos - flipStart, FLIP_NANOS) : 1;
+                if (t < 0.5) {
+                    shown = previous;
+                    width = (int) (bounds.width * (1 - 2 * t));
+                } else {
+                    width = (int) (bounds.width * (2 * t - 1));
+                }
+            }
+            BufferedImage image = cardImages.get(shown, bounds.width, bounds.height);
+            if (image == null || width <= 0) {
+                return;
+            }
+            if (width == bounds.width) {
+                g.drawImage(image, bounds.x, bounds.y, null);
+            } else {
+                g.drawImage(image, bounds.x + (bounds.width - width) / 2, bounds.y, width, bounds.height, null);
+            }
+        }
+    }
+
+    private static double progress(long elapsed, long duration) {
+        return elapsed >= duration ? 1 : Math.max(0, (double) elapsed / duration);
+    }
 }
@@ -0,0 +1,100 @@
+package client;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Stops sending calls to a server that keeps failing.
+ *
+ * After failureThreshold failures in a row the breaker opens and every call fails
+ * at once with OpenException. Once the cool-down has passed a single trial call is
+ * let through: if it succeeds the breaker closes, otherwise it opens again. Every
+ * check() that passes must be followed by onSuccess, onFailure or cancel.
+ */
+public class CircuitBreaker
+{
+    public enum State
+    {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private final int failureThreshold;
+    private final long coolDownNanos;
+
+    private State state = State.CLOSED;
+    private int failures;
+    private long openedAt;
+    private boolean trialInFlight;
+
+    public CircuitBreaker()
+    {
+        this(10, 5, TimeUnit.SECONDS);
+    }
+
+    public CircuitBreaker(int failureThreshold, long coolDown, TimeUnit unit)
+    {
+        if (failureThreshold < 1) {
+            throw new IllegalArgumentException("failureThreshold must be positive: " + failureThreshold);
+        }
+        this.failureThreshold = failureThreshold;
+        this.coolDownNanos = unit.toNanos(coolDown);
+    }
+
+    /**
+     * Call before each request; throws if the request should not be sent.
+     */
+    public synchronized void check() throws OpenException {
+        if (state == State.OPEN) {
+            long waited = System.nanoTime() - openedAt;
+            if (waited < coolDownNanos) {
+                throw new OpenException(TimeUnit.NANOSECONDS.toMillis(coolDownNanos - waited));
+            }
+            state = State.HALF_OPEN;
+            trialInFlight = false;
+        }
+        if (state == State.HALF_OPEN) {
+            if (trialInFlight) {
+                throw new OpenException(0);
+            }
+            trialInFlight = true;
+        }
+    }
+
+    /**
+     * Call instead of onSuccess or onFailure when a request that passed check() was
+     * never sent, so a half-open breaker can let another trial through.
+     */
+    public synchronized void cancel() {
+        if (state == State.HALF_OPEN) {
+            trialInFlight = false;
+        }
+    }
+
+    public synchronized void onSuccess() {
+        failures = 0;
+        state = State.CLOSED;
+    }
+
+    public synchronized void onFailure() {
+        failures++;
+        if (state == State.HALF_OPEN || failures >= failureThreshold) {
+            state = State.OPEN;
+            openedAt = System.nanoTime();
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    public static class OpenException extends Exception
+    {
+        private static final long serialVersionUID = 1L;
+
+        OpenException(long retryInMillis)
+        {
+            super("Circuit open, server is failing; retry in " + retryInMillis + " ms");
+        }
+    }
+}
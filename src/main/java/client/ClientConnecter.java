@@ -1,111 +1,464 @@
 package client;
 
+import java.io.IOException;
 import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.net.http.HttpResponse.BodyHandlers;
+import java.nio.charset.StandardCharsets;
+import java.lang.reflect.Type;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
-import com.google.gson.Gson;
 import com.google.gson.reflect.TypeToken;
 
-public class ClientConnecter 
+public class ClientConnecter implements BlackjackApi
 {
+    private static final Type SESSION_LIST = new TypeToken<List<SessionSummary>>() {}.getType();
+    // retries for calls that are safe to repeat, with backoff doubling from the base
+    static final int MAX_RETRIES = 3;
+    private static final long RETRY_BASE_MILLIS = 50;
+    private static final long RETRY_MAX_MILLIS = 2000;
+
     private final String baseUrl;
     private final String username;
     private final String password;
     private final HttpClient client;
+    private final TransportConfig transport;
     private final String params;
- 
-    public ClientConnecter(String baseUrl, String username, String password) 
+    private final HttpRequest startRequest;
+    private final HttpRequest listRequest;
+
+    // last pending async call for each session, so calls on the same session run in order
+    private final ConcurrentHashMap<UUID, CompletableFuture<?>> pending = new ConcurrentHashMap<>();
+    private final List<GameStateListener> listeners = new CopyOnWriteArrayList<>();
+    private final ConnecterMetrics metrics = new ConnecterMetrics();
+    private volatile ConcurrencyLimiter limiter = new ConcurrencyLimiter();
+    private volatile CircuitBreaker breaker = new CircuitBreaker();
+    private volatile Transcript.Recorder recorder;
+    // prebuilt requests for each session; HttpRequests are immutable, so they can be sent again and again
+    private final ConcurrentHashMap<UUID, SessionRequests> sessions = new ConcurrentHashMap<>();
+
+    public ClientConnecter(String baseUrl, String username, String password)
+    {
+        this(baseUrl, username, password, TransportConfig.defaults());
+    }
+
+    public ClientConnecter(String baseUrl, String username, String password, TransportConfig transport)
     {
         this.baseUrl = baseUrl;
         this.username = username;
         this.password = password;
-        this.client = HttpClient.newHttpClient();
+        this.transport = transport;
+        this.client = transport.client();
         this.params = "?username=" + username + "&password=" + password;
+        this.startRequest = post("/start");
+        this.listRequest = request(baseUrl + "/sessions/" + username + "?password=" + password).GET().build();
     }
 
-    public List<SessionSummary> listSessions() throws Exception {
-        HttpRequest request = HttpRequest.newBuilder()
-            .uri(URI.create(baseUrl + "/sessions/" + username + "?password=" + password))
-            .GET()
-            .build();
+    /**
+     * The listener is told about every GameState returned by this connecter, sync or async.
+     */
+    public void addListener(GameStateListener listener) {
+        listeners.add(listener);
+    }
 
-        HttpResponse<String> response = client.send(request, BodyHandlers.ofString());
-        return JsonUtil.GSON.fromJson(response.body(), new TypeToken<List<SessionSummary>>() {}.getType());
+    public void removeListener(GameStateListener listener) {
+        listeners.remove(listener);
     }
 
+    /**
+     * Latency, status and byte counts for every call made through this connecter.
+     */
+    public ConnecterMetrics getMetrics() {
+        return metrics;
+    }
 
-    public GameState newGame(UUID sessionId) throws Exception {
-        HttpRequest request = HttpRequest.newBuilder()
-            .uri(URI.create(baseUrl + "/" + sessionId + "/reset" + params))
-            .POST(HttpRequest.BodyPublishers.noBody())
-            .build();
+    /**
+     * Share one limiter or breaker between connecters that talk to the same server,
+     * so that together they back off when it is overloaded.
+     */
+    public void setLimiter(ConcurrencyLimiter limiter) {
+        this.limiter = limiter;
+    }
 
-        HttpResponse<String> response = client.send(request, BodyHandlers.ofString());
-        return GameState.fromJson(response.body());
+    public ConcurrencyLimiter getLimiter() {
+        return limiter;
     }
 
-    public void finishGame(UUID sessionId) throws Exception {
-        HttpRequest request = HttpRequest.newBuilder()
-            .uri(URI.create(baseUrl + "/" + sessionId + "/finish" + params))
-            .POST(HttpRequest.BodyPublishers.noBody())
-            .build();
+    public void setCircuitBreaker(CircuitBreaker breaker) {
+        this.breaker = breaker;
+    }
+
+    public CircuitBreaker getCircuitBreaker() {
+        return breaker;
+    }
+
+    /**
+     * Records every call from now on, or stops recording if null. See Transcript.
+     */
+    public void setRecorder(Transcript.Recorder recorder) {
+        this.recorder = recorder;
+    }
+
+    // Every call waits for room under the limiter and fails fast while the breaker is open.
+    // A non-2xx response throws ServerException. listSessions and resumeSession don't
+    // change anything on the server, so they are retried with jittered backoff when the
+    // connection fails or the server is overloaded.
+
+    public List<SessionSummary> listSessions() throws Exception {
+        return toSessions(exchange(Action.LIST, listRequest));
+    }
+
+
+    public GameState newGame(UUID sessionId) throws Exception {
+        return send(Action.RESET, requests(sessionId).reset);
+    }
 
-        client.send(request, BodyHandlers.ofString());
+    public void finishGame(UUID sessionId) throws Exception {
+        exchange(Action.FINISH, requests(sessionId).finish);
+        sessions.remove(sessionId);
+        notifyFinished(sessionId);
     }
 
     public GameState startGame() throws Exception {
-        HttpRequest request = HttpRequest.newBuilder()
-            .uri(URI.create(baseUrl + "/start" + params))
-            .POST(HttpRequest.BodyPublishers.noBody())
-            .build();
-        System.out.println("Request: " + request);
-        HttpResponse<String> response = client.send(request, BodyHandlers.ofString());
-        return GameState.fromJson(response.body());
+        return send(Action.START, startRequest);
     }
 
     public GameState placeBet(UUID sessionId, int amount) throws Exception {
-        HttpRequest request = HttpRequest.newBuilder()
-            .uri(URI.create(baseUrl + "/" + sessionId + "/bet/" + amount + params))
-            .POST(HttpRequest.BodyPublishers.noBody())
-            .build();
-
-        HttpResponse<String> response = client.send(request, BodyHandlers.ofString());
-        return GameState.fromJson(response.body());
+        return send(Action.BET, requests(sessionId).bet(amount));
     }
 
     public GameState hit(UUID sessionId) throws Exception {
-        HttpRequest request = HttpRequest.newBuilder()
-            .uri(URI.create(baseUrl + "/" + sessionId + "/hit" + params))
-            .POST(HttpRequest.BodyPublishers.noBody())
-            .build();
-
-        HttpResponse<String> response = client.send(request, BodyHandlers.ofString());
-        return GameState.fromJson(response.body());
+        return send(Action.HIT, requests(sessionId).hit);
     }
 
 
     public GameState stand(UUID sessionId) throws Exception {
-        HttpRequest request = HttpRequest.newBuilder()
-            .uri(URI.create(baseUrl + "/" + sessionId + "/stand" + params))
-            .POST(HttpRequest.BodyPublishers.noBody())
-            .build();
-
-        HttpResponse<String> response = client.send(request, BodyHandlers.ofString());
-        return GameState.fromJson(response.body());
+        return send(Action.STAND, requests(sessionId).stand);
     }
 
     public GameState resumeSession(UUID sessionId) throws Exception {
-        HttpRequest request = HttpRequest.newBuilder()
-            .uri(URI.create(baseUrl + "/resume/" + sessionId + params))
-            .POST(HttpRequest.BodyPublishers.noBody())
-            .build();
-    
-        HttpResponse<String> response = client.send(request, BodyHandlers.ofString());
-        return new Gson().fromJson(response.body(), GameState.class);
+        return send(Action.RESUME, requests(sessionId).resume);
+    }
+
+    // Async versions of the calls above. These never block the calling thread.
+    // Calls on the same session are sent one at a time in the order they were made,
+    // so a bot can chain reset -> bet -> hit/stand without waiting for each response.
+    // A failed call does not stop the calls queued behind it; the server will reject
+    // them if the session is in the wrong phase.
+
+    public CompletableFuture<List<SessionSummary>> listSessionsAsync() {
+        return exchangeAsync(Action.LIST, listRequest).thenApply(this::toSessions);
+    }
+
+    public CompletableFuture<GameState> startGameAsync() {
+        return sendAsync(Action.START, startRequest);
+    }
+
+    public CompletableFuture<GameState> newGameAsync(UUID sessionId) {
+        return enqueue(sessionId, () -> sendAsync(Action.RESET, requests(sessionId).reset));
+    }
+
+    public CompletableFuture<GameState> placeBetAsync(UUID sessionId, int amount) {
+        return enqueue(sessionId, () -> sendAsync(Action.BET, requests(sessionId).bet(amount)));
+    }
+
+    public CompletableFuture<GameState> hitAsync(UUID sessionId) {
+        return enqueue(sessionId, () -> sendAsync(Action.HIT, requests(sessionId).hit));
+    }
+
+    public CompletableFuture<GameState> standAsync(UUID sessionId) {
+        return enqueue(sessionId, () -> sendAsync(Action.STAND, requests(sessionId).stand));
+    }
+
+    public CompletableFuture<GameState> resumeSessionAsync(UUID sessionId) {
+        return enqueue(sessionId, () -> sendAsync(Action.RESUME, requests(sessionId).resume));
+    }
+
+    public CompletableFuture<Void> finishGameAsync(UUID sessionId) {
+        return enqueue(sessionId, () -> exchangeAsync(Action.FINISH, requests(sessionId).finish)
+            .thenApply(response -> {
+                sessions.remove(sessionId);
+                notifyFinished(sessionId);
+                return (Void) null;
+            }));
+    }
+
+    private <T> CompletableFuture<T> enqueue(UUID sessionId, Supplier<CompletableFuture<T>> call) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        CompletableFuture<?> previous = pending.put(sessionId, result);
+        CompletableFuture<?> ready = previous == null
+            ? CompletableFuture.completedFuture(null)
+            : previous.handle((value, error) -> null);
+        ready.thenCompose(ignored -> call.get()).whenComplete((value, error) -> {
+            pending.remove(sessionId, result);
+            if (error instanceof CompletionException && error.getCause() != null) {
+                result.completeExceptionally(error.getCause());
+            } else if (error != null) {
+                result.completeExceptionally(error);
+            } else {
+                result.complete(value);
+            }
+        });
+        return result;
+    }
+
+    private GameState send(Action action, HttpRequest request) throws Exception {
+        return toGameState(action, exchange(action, request));
+    }
+
+    private CompletableFuture<GameState> sendAsync(Action action, HttpRequest request) {
+        return exchangeAsync(action, request).thenApply(response -> toGameState(action, response));
+    }
+
+    // Every request goes through one of these two, so every call is measured and limited.
+    // The transcript gets one record per call, for its final result: a replay answers
+    // each call with one record, so the attempts before a retry must not be in it.
+    private HttpResponse<byte[]> exchange(Action action, HttpRequest request) throws Exception {
+        long start = System.nanoTime();
+        try {
+            HttpResponse<byte[]> response = attempts(action, request);
+            record(action, request, start, response, null);
+            return response;
+        } catch (Exception e) {
+            record(action, request, start, null, e);
+            throw e;
+        }
+    }
+
+    private CompletableFuture<HttpResponse<byte[]>> exchangeAsync(Action action, HttpRequest request) {
+        long start = System.nanoTime();
+        return exchangeAsync(action, request, 1).whenComplete((response, error) ->
+            record(action, request, start, response, error));
+    }
+
+    private HttpResponse<byte[]> attempts(Action action, HttpRequest request) throws Exception {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return attempt(action, request);
+            } catch (Exception e) {
+                if (!shouldRetry(action, e, attempt)) {
+                    throw e;
+                }
+                Thread.sleep(backoffMillis(attempt));
+            }
+        }
+    }
+
+    private CompletableFuture<HttpResponse<byte[]>> exchangeAsync(Action action, HttpRequest request, int attempt) {
+        CompletableFuture<HttpResponse<byte[]>> result = new CompletableFuture<>();
+        attemptAsync(action, request).whenComplete((response, error) -> {
+            Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            if (cause == null) {
+                result.complete(response);
+            } else if (shouldRetry(action, cause, attempt)) {
+                CompletableFuture.delayedExecutor(backoffMillis(attempt), TimeUnit.MILLISECONDS).execute(() ->
+                    exchangeAsync(action, request, attempt + 1).whenComplete((retried, retryError) -> {
+                        if (retryError != null) {
+                            result.completeExceptionally(retryError);
+                        } else {
+                            result.complete(retried);
+                        }
+                    }));
+            } else {
+                result.completeExceptionally(cause);
+            }
+        });
+        return result;
+    }
+
+    private HttpResponse<byte[]> attempt(Action action, HttpRequest request) throws Exception {
+        CircuitBreaker breaker = this.breaker;
+        ConcurrencyLimiter limiter = this.limiter;
+        breaker.check();
+        try {
+            limiter.acquire();
+        } catch (InterruptedException | RuntimeException e) {
+            breaker.cancel();
+            throw e;
+        }
+        // from here on settle() gives back both the breaker's trial and the permit
+        long start = System.nanoTime();
+        HttpResponse<byte[]> response = null;
+        Exception error = null;
+        try {
+            response = client.send(request, BodyHandlers.ofByteArray());
+        } catch (Exception e) {
+            error = e;
+        }
+        Exception failure = settle(action, start, response, error, limiter, breaker);
+        if (failure != null) {
+            throw failure;
+        }
+        return response;
+    }
+
+    private CompletableFuture<HttpResponse<byte[]>> attemptAsync(Action action, HttpRequest request) {
+        CircuitBreaker breaker = this.breaker;
+        ConcurrencyLimiter limiter = this.limiter;
+        CompletableFuture<Void> permit;
+        try {
+            breaker.check();
+        } catch (CircuitBreaker.OpenException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        try {
+            permit = limiter.acquireAsync();
+        } catch (RuntimeException e) {
+            breaker.cancel();
+            return CompletableFuture.failedFuture(e);
+        }
+        return permit.thenCompose(ignored -> {
+            long start = System.nanoTime();
+            CompletableFuture<HttpResponse<byte[]>> sent;
+            try {
+                sent = client.sendAsync(request, BodyHandlers.ofByteArray());
+            } catch (RuntimeException e) {
+                // settle() below still gives back the permit and the breaker's trial
+                sent = CompletableFuture.failedFuture(e);
+            }
+            return sent.handle((response, error) -> {
+                Exception failure = settle(action, start, response, error, limiter, breaker);
+                if (failure != null) {
+                    throw new CompletionException(failure);
+                }
+                return response;
+            });
+        });
+    }
+
+    // records how the call went and returns the exception it should fail with, if any
+    private Exception settle(Action action, long start, HttpResponse<byte[]> response, Throwable error,
+                             ConcurrencyLimiter limiter, CircuitBreaker breaker) {
+        long nanos = System.nanoTime() - start;
+        if (error != null) {
+            limiter.release(nanos, true);
+            breaker.onFailure();
+            metrics.recordFailure(action, nanos);
+            Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            return cause instanceof Exception ? (Exception) cause : new IOException(cause);
+        }
+        int status = response.statusCode();
+        boolean overloaded = status / 100 != 2 && ServerException.isOverload(status);
+        // give back the permit and the breaker's trial before anything else can throw
+        limiter.release(nanos, overloaded);
+        if (overloaded) {
+            breaker.onFailure();
+        } else {
+            breaker.onSuccess();
+        }
+        metrics.record(action, nanos, status, response.body().length);
+        return status / 100 == 2
+            ? null
+            : new ServerException(action, status, new String(response.body(), StandardCharsets.UTF_8));
+    }
+
+    // records a whole call, retries included, from when it started; a call that got no
+    // answer has status 0
+    private void record(Action action, HttpRequest request, long start, HttpResponse<byte[]> response, Throwable error) {
+        Transcript.Recorder recorder = this.recorder;
+        if (recorder == null) {
+            return;
+        }
+        long nanos = System.nanoTime() - start;
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        int status = 0;
+        byte[] body = new byte[0];
+        if (response != null) {
+            status = response.statusCode();
+            body = response.body();
+        } else if (cause instanceof ServerException) {
+            status = ((ServerException) cause).getStatus();
+            body = ((ServerException) cause).getBody().getBytes(StandardCharsets.UTF_8);
+        }
+        // a broken recording doesn't break the game; the recorder keeps the failure for close()
+        recorder.record(action, request.uri(), start, nanos, status, body);
+    }
+
+    private static boolean shouldRetry(Action action, Throwable error, int attempt) {
+        if (attempt > MAX_RETRIES || (action != Action.LIST && action != Action.RESUME)) {
+            return false;
+        }
+        return error instanceof IOException
+            || (error instanceof ServerException && ((ServerException) error).isOverload());
+    }
+
+    // "full jitter": anywhere from zero up to the doubled backoff, so retries spread out
+    private static long backoffMillis(int attempt) {
+        long ceiling = Math.min(RETRY_MAX_MILLIS, RETRY_BASE_MILLIS << attempt);
+        return ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+
+    private GameState toGameState(Action action, HttpResponse<byte[]> response) {
+        GameState state = GameStateDecoder.decode(response.body());
+        notifyListeners(action, state);
+        return state;
+    }
+
+    private List<SessionSummary> toSessions(HttpResponse<byte[]> response) {
+        return JsonUtil.GSON.fromJson(new String(response.body(), StandardCharsets.UTF_8), SESSION_LIST);
+    }
+
+    private void notifyListeners(Action action, GameState state) {
+        for (GameStateListener listener : listeners) {
+            listener.onGameState(action, state);
+        }
+    }
+
+    private void notifyFinished(UUID sessionId) {
+        for (GameStateListener listener : listeners) {
+            listener.onFinished(sessionId);
+        }
+    }
+
+    private SessionRequests requests(UUID sessionId) {
+        return sessions.computeIfAbsent(sessionId, SessionRequests::new);
+    }
+
+    private HttpRequest post(String path) {
+        return request(baseUrl + path + params).POST(HttpRequest.BodyPublishers.noBody()).build();
+    }
+
+    private HttpRequest.Builder request(String uri) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder().uri(URI.create(uri));
+        if (transport.requestTimeout != null) {
+            builder.timeout(transport.requestTimeout);
+        }
+        return builder;
+    }
+
+    private class SessionRequests
+    {
+        final String prefix;
+        final HttpRequest reset;
+        final HttpRequest hit;
+        final HttpRequest stand;
+        final HttpRequest finish;
+        final HttpRequest resume;
+        // only a handful of bet amounts are ever used
+        final ConcurrentHashMap<Integer, HttpRequest> bets = new ConcurrentHashMap<>();
+
+        SessionRequests(UUID sessionId)
+        {
+            prefix = "/" + sessionId;
+            reset = post(prefix + "/reset");
+            hit = post(prefix + "/hit");
+            stand = post(prefix + "/stand");
+            finish = post(prefix + "/finish");
+            resume = post("/resume/" + sessionId);
+        }
+
+        HttpRequest bet(int amount) {
+            return bets.computeIfAbsent(amount, a -> post(prefix + "/bet/" + a));
+        }
     }
 }
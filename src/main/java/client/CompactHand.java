@@ -0,0 +1,125 @@
+package client;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * A GameState packed into primitives, for keeping large numbers of hands in memory.
+ * Cards are Card ordinals, phase and outcome are the BlackjackRules constants, and
+ * the four booleans share one byte of flags.
+ */
+public class CompactHand
+{
+    static final int CAN_HIT = 1;
+    static final int CAN_STAND = 2;
+    static final int GAME_OVER = 4;
+    static final int RESHUFFLED = 8;
+
+    private static final Card[] CARDS = Card.values();
+
+    public final UUID sessionId;
+    public final byte[] playerCards;
+    public final byte playerValue;
+    public final byte[] dealerCards;
+    // -1 while the dealer's hole card is hidden
+    public final byte dealerValue;
+    public final String phase;
+    public final String outcome;
+    public final int balance;
+    public final int currentBet;
+    public final byte cardsRemaining;
+    public final byte flags;
+
+    CompactHand(UUID sessionId, byte[] playerCards, byte playerValue, byte[] dealerCards, byte dealerValue,
+        String phase, String outcome, int balance, int currentBet, byte cardsRemaining, byte flags)
+    {
+        this.sessionId = sessionId;
+        this.playerCards = playerCards;
+        this.playerValue = playerValue;
+        this.dealerCards = dealerCards;
+        this.dealerValue = dealerValue;
+        this.phase = phase;
+        this.outcome = outcome;
+        this.balance = balance;
+        this.currentBet = currentBet;
+        this.cardsRemaining = cardsRemaining;
+        this.flags = flags;
+    }
+
+    public static CompactHand from(GameState state) {
+        int flags = (state.canHit ? CAN_HIT : 0)
+            | (state.canStand ? CAN_STAND : 0)
+            | (state.gameOver ? GAME_OVER : 0)
+            | (state.reshuffled ? RESHUFFLED : 0);
+        return new CompactHand(
+            state.sessionId,
+            toOrdinals(state.getPlayerHand()),
+            (byte) state.playerValue,
+            toOrdinals(state.getDealerHand()),
+            (byte) (state.dealerValue == null ? -1 : state.dealerValue),
+            BlackjackRules.phase(BlackjackRules.phaseCode(state.phase)),
+            BlackjackRules.outcome(BlackjackRules.outcomeCode(state.outcome)),
+            state.balance,
+            state.currentBet,
+            (byte) state.cardsRemaining,
+            (byte) flags);
+    }
+
+    public GameState toGameState() {
+        GameState state = new GameState();
+        state.sessionId = sessionId;
+        state.playerHand = toCards(playerCards);
+        state.playerCards = toServerNames(state.playerHand);
+        state.playerValue = playerValue;
+        state.dealerHand = toCards(dealerCards);
+        state.dealerCards = toServerNames(state.dealerHand);
+        state.dealerValue = dealerValue < 0 ? null : Integer.valueOf(dealerValue);
+        state.phase = phase;
+        state.outcome = outcome;
+        state.balance = balance;
+        state.currentBet = currentBet;
+        state.canHit = (flags & CAN_HIT) != 0;
+        state.canStand = (flags & CAN_STAND) != 0;
+        state.gameOver = (flags & GAME_OVER) != 0;
+        state.cardsRemaining = cardsRemaining;
+        state.reshuffled = (flags & RESHUFFLED) != 0;
+        return state;
+    }
+
+    public Card getPlayerCard(int i) {
+        return CARDS[playerCards[i]];
+    }
+
+    public Card getDealerCard(int i) {
+        return CARDS[dealerCards[i]];
+    }
+
+    static Card toCard(byte ordinal) {
+        return CARDS[ordinal];
+    }
+
+    static byte[] toOrdinals(List<Card> cards) {
+        byte[] ordinals = new byte[cards.size()];
+        for (int i = 0; i < ordinals.length; i++) {
+            ordinals[i] = (byte) cards.get(i).ordinal();
+        }
+        return ordinals;
+    }
+
+    private static List<Card> toCards(byte[] ordinals) {
+        List<Card> cards = new ArrayList<>(ordinals.length);
+        for (byte ordinal : ordinals) {
+            cards.add(CARDS[ordinal]);
+        }
+        return cards;
+    }
+
+    private static List<String> toServerNames(List<Card> cards) {
+        List<String> names = new ArrayList<>(cards.size());
+        for (Card card : cards) {
+            names.add(card.getServerName());
+        }
+        return names;
+    }
+}
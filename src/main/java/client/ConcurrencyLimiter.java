@@ -0,0 +1,132 @@
+package client;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Caps the number of calls in flight to the server, and moves the cap to match
+ * what the server can take (AIMD driven by latency).
+ *
+ * The limiter remembers the fastest recent call. While calls come back within
+ * TOLERANCE times that, the server has room and the limit grows by about one per
+ * round trip. When latency climbs past it, or the server sheds load, the limit is
+ * cut by a fixed ratio. Callers over the limit wait in line; the async acquire
+ * never blocks a thread.
+ */
+public class ConcurrencyLimiter
+{
+    private static final double TOLERANCE = 2.0;
+    private static final double BACKOFF = 0.9;
+    private static final double DROP_BACKOFF = 0.5;
+    // forget the fastest call after this many samples, so a slower server gets a new baseline
+    private static final int BASELINE_WINDOW = 1000;
+
+    private final int minLimit;
+    private final int maxLimit;
+
+    private double limit;
+    private int inFlight;
+    private long minLatency = Long.MAX_VALUE;
+    private int samples;
+    private final ArrayDeque<CompletableFuture<Void>> waiting = new ArrayDeque<>();
+
+    public ConcurrencyLimiter()
+    {
+        this(8, 1, 256);
+    }
+
+    public ConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit)
+    {
+        if (minLimit < 1 || initialLimit < minLimit || maxLimit < initialLimit) {
+            throw new IllegalArgumentException("Need 1 <= min <= initial <= max: " + minLimit + ", " + initialLimit + ", " + maxLimit);
+        }
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+    }
+
+    /**
+     * Completes once the caller may send. Every acquire must be matched by one release.
+     */
+    public CompletableFuture<Void> acquireAsync() {
+        synchronized (this) {
+            if (waiting.isEmpty() && inFlight < (int) limit) {
+                inFlight++;
+                return CompletableFuture.completedFuture(null);
+            }
+            CompletableFuture<Void> permit = new CompletableFuture<>();
+            waiting.add(permit);
+            return permit;
+        }
+    }
+
+    public void acquire() throws InterruptedException {
+        CompletableFuture<Void> permit = acquireAsync();
+        try {
+            permit.get();
+        } catch (InterruptedException e) {
+            if (!permit.cancel(false)) {
+                // it was granted just as we gave up
+                release();
+            }
+            throw e;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Gives back a permit after a call that got a response.
+     *
+     * @param overloaded the server said it was overloaded or the call failed
+     */
+    public void release(long latencyNanos, boolean overloaded) {
+        synchronized (this) {
+            if (overloaded) {
+                limit = Math.max(minLimit, limit * DROP_BACKOFF);
+            } else {
+                if (++samples >= BASELINE_WINDOW) {
+                    samples = 0;
+                    minLatency = latencyNanos;
+                }
+                minLatency = Math.min(minLatency, latencyNanos);
+                if (latencyNanos > minLatency * TOLERANCE) {
+                    limit = Math.max(minLimit, limit * BACKOFF);
+                } else if (inFlight >= limit / 2) {
+                    // only grow a limit that is actually being used
+                    limit = Math.min(maxLimit, limit + 1 / limit);
+                }
+            }
+        }
+        release();
+    }
+
+    // gives back a permit without a latency sample
+    public void release() {
+        List<CompletableFuture<Void>> granted = new ArrayList<>();
+        synchronized (this) {
+            inFlight--;
+            while (!waiting.isEmpty() && inFlight < (int) limit) {
+                granted.add(waiting.poll());
+                inFlight++;
+            }
+        }
+        // complete outside the lock, since completing runs the caller's next step
+        for (CompletableFuture<Void> permit : granted) {
+            if (!permit.complete(null)) {
+                release();
+            }
+        }
+    }
+
+    public synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    public synchronized int getInFlight() {
+        return inFlight;
+    }
+}
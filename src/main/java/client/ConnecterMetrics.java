@@ -0,0 +1,164 @@
+package client;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency, status code and byte counts for every call a ClientConnecter makes,
+ * kept separately for each endpoint. Recording never blocks.
+ *
+ * Poll snapshot() to read the numbers, or have them appended to a file
+ * every so often with startDumping().
+ */
+public class ConnecterMetrics
+{
+    private final EnumMap<Action, Endpoint> endpoints = new EnumMap<>(Action.class);
+    private final long startNanos = System.nanoTime();
+    private ScheduledExecutorService dumper;
+    private volatile IOException dumpFailure;
+
+    public ConnecterMetrics()
+    {
+        for (Action action : Action.values()) {
+            endpoints.put(action, new Endpoint());
+        }
+    }
+
+    public void record(Action action, long nanos, int status, long bytes) {
+        Endpoint endpoint = endpoints.get(action);
+        endpoint.latency.record(TimeUnit.NANOSECONDS.toMicros(nanos));
+        endpoint.bytes.add(bytes);
+        endpoint.statuses.computeIfAbsent(status, s -> new LongAdder()).increment();
+    }
+
+    // the call threw instead of getting a response
+    public void recordFailure(Action action, long nanos) {
+        Endpoint endpoint = endpoints.get(action);
+        endpoint.latency.record(TimeUnit.NANOSECONDS.toMicros(nanos));
+        endpoint.failures.increment();
+    }
+
+    public Snapshot snapshot() {
+        Snapshot snapshot = new Snapshot();
+        snapshot.time = LocalDateTime.now();
+        snapshot.elapsedNanos = System.nanoTime() - startNanos;
+        for (Map.Entry<Action, Endpoint> entry : endpoints.entrySet()) {
+            Endpoint endpoint = entry.getValue();
+            EndpointSnapshot e = new EndpointSnapshot();
+            e.latency = endpoint.latency.snapshot();
+            e.failures = endpoint.failures.sum();
+            e.bytes = endpoint.bytes.sum();
+            endpoint.statuses.forEach((status, count) -> e.statuses.put(status, count.sum()));
+            snapshot.endpoints.put(entry.getKey(), e);
+        }
+        return snapshot;
+    }
+
+    /**
+     * Appends a snapshot to the file every period until stopDumping() is called.
+     * A write that fails is reported once on stderr and tried again next period.
+     */
+    public synchronized void startDumping(Path file, long period, TimeUnit unit) {
+        stopDumping();
+        dumper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "metrics-dump");
+            thread.setDaemon(true);
+            return thread;
+        });
+        dumpFailure = null;
+        // a scheduled task that throws is never run again, so nothing may escape
+        dumper.scheduleAtFixedRate(() -> {
+            try {
+                Files.write(file, snapshot().toString().getBytes(StandardCharsets.UTF_8),
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+                dumpFailure = null;
+            } catch (IOException e) {
+                if (dumpFailure == null) {
+                    System.err.println("Writing metrics to " + file + " failed, will keep trying: " + e);
+                }
+                dumpFailure = e;
+            }
+        }, period, period, unit);
+    }
+
+    // why the last dump failed, or null if it worked
+    public IOException getDumpFailure() {
+        return dumpFailure;
+    }
+
+    public synchronized void stopDumping() {
+        if (dumper != null) {
+            dumper.shutdown();
+            dumper = null;
+        }
+    }
+
+    private static class Endpoint
+    {
+        final LatencyHistogram latency = new LatencyHistogram();
+        final LongAdder failures = new LongAdder();
+        final LongAdder bytes = new LongAdder();
+        final ConcurrentHashMap<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+    }
+
+    public static class EndpointSnapshot
+    {
+        // every call, including failures
+        public LatencyHistogram.Snapshot latency;
+        public long failures;
+        public long bytes;
+        public Map<Integer, Long> statuses = new TreeMap<>();
+    }
+
+    public static class Snapshot
+    {
+        public LocalDateTime time;
+        public long elapsedNanos;
+        public EnumMap<Action, EndpointSnapshot> endpoints = new EnumMap<>(Action.class);
+
+        public long totalCalls() {
+            long total = 0;
+            for (EndpointSnapshot endpoint : endpoints.values()) {
+                total += endpoint.latency.getCount();
+            }
+            return total;
+        }
+
+        // calls per second since the metrics were created
+        public double callsPerSecond() {
+            return elapsedNanos == 0 ? 0 : totalCalls() * 1e9 / elapsedNanos;
+        }
+
+        @Override
+        public String toString()
+        {
+            StringBuilder out = new StringBuilder();
+            out.append(time).append(String.format("  %d calls, %.1f calls/sec%n", totalCalls(), callsPerSecond()));
+            out.append(String.format("%-8s %8s %8s %8s %8s %8s %8s %8s %10s  %s%n",
+                "endpoint", "calls", "failed", "mean us", "p50", "p90", "p99", "max", "bytes", "statuses"));
+            for (Map.Entry<Action, EndpointSnapshot> entry : endpoints.entrySet()) {
+                EndpointSnapshot e = entry.getValue();
+                if (e.latency.getCount() == 0) {
+                    continue;
+                }
+                out.append(String.format("%-8s %8d %8d %8.0f %8d %8d %8d %8d %10d  %s%n",
+                    entry.getKey(), e.latency.getCount(), e.failures, e.latency.getMean(),
+                    e.latency.getPercentile(50), e.latency.getPercentile(90), e.latency.getPercentile(99),
+                    e.latency.getMax(), e.bytes, e.statuses));
+            }
+            return out.toString();
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package client;
+
+/**
+ * Card counting systems: how much each rank adds to the running count.
+ */
+public enum CountingSystem
+{
+    //       A   2  3  4  5  6  7  8  9  10 J   Q   K
+    HI_LO(  -1,  1, 1, 1, 1, 1, 0, 0, 0, -1, -1, -1, -1),
+    KO(     -1,  1, 1, 1, 1, 1, 1, 0, 0, -1, -1, -1, -1),
+    OMEGA_II(0,  1, 1, 2, 2, 2, 1, 0, -1, -2, -2, -2, -2);
+
+    // indexed by Card.getRank(); index 0 is the HIDDEN card, which never counts
+    private final int[] tags = new int[14];
+    // the running count after counting one whole deck
+    private final int deckTotal;
+
+    CountingSystem(int... tagsByRank)
+    {
+        System.arraycopy(tagsByRank, 0, tags, 1, tagsByRank.length);
+        int sum = 0;
+        for (int tag : tagsByRank) {
+            sum += tag * 4;
+        }
+        this.deckTotal = sum;
+    }
+
+    public int tag(Card card) {
+        return tags[card.getRank()];
+    }
+
+    // a balanced system counts back to 0 once the whole deck has been seen
+    public boolean isBalanced() {
+        return deckTotal == 0;
+    }
+
+    /**
+     * Running count to start from after a shuffle. Unbalanced systems start low so
+     * that the count ends at the same pivot as a balanced system would.
+     */
+    public int initialCount(int decks) {
+        return deckTotal * (1 - decks);
+    }
+}
@@ -0,0 +1,361 @@
+package client;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Exact expected value of hitting or standing, given exactly which cards are left.
+ *
+ * The shoe is described by counts of the unseen cards by value: counts[0] is aces,
+ * counts[1] twos, ... counts[9] tens and faces (see CardCounter.getUnseen). The dealer's
+ * hole card is drawn from the same pool. EVs are in units of the bet: +1 win, -1 loss.
+ *
+ * Results are memoized on a packed key of the composition and the hand, so repeated
+ * and overlapping positions are answered from the cache. The cache is dropped when it
+ * gets large. Not thread-safe; use one calculator per thread.
+ *
+ * shouldHit answers within about DECISION_BUDGET_NANOS even on a cold cache: when the
+ * exact search runs over, it falls back to leaving the player's own draws in the
+ * dealer's deck, which needs the dealer worked out for one deck only.
+ */
+public class EvCalculator
+{
+    // dealer outcome slots: final totals 17 to 21, then bust
+    public static final int BUST = 5;
+    // how long shouldHit may spend on the exact answer before settling for the quick one
+    public static final long DECISION_BUDGET_NANOS = 400_000;
+
+    private static final int MAX_CACHE_SIZE = 1 << 16;
+    private static final long QUICK = 1L << 59;
+    private static final OutOfTime OUT_OF_TIME = new OutOfTime();
+    private static final long DEALER = 1L << 62;
+    private static final long HIT = 2L << 62;
+    // the distribution once the dealer stands or busts: all of it in one slot
+    private static final double[][] FINAL = new double[BUST + 1][BUST + 1];
+    static {
+        for (int i = 0; i <= BUST; i++) {
+            FINAL[i][i] = 1;
+        }
+    }
+
+    private final Cache dealerCache = new Cache();
+    private final Cache hitCache = new Cache();
+    private final int[] counts = new int[10];
+    // System.nanoTime() by which the search must be done, or 0 for no limit
+    private long deadline;
+
+    public boolean shouldHit(List<Card> playerCards, Card dealerUp, int[] unseen) {
+        int total = BlackjackRules.handValue(playerCards);
+        boolean soft = total != hardTotal(playerCards);
+        if (total <= 11 || (soft && total <= 16)) {
+            // Standing on 16 or less only wins if the dealer busts. One card can't bust
+            // this hand, and taking it and then standing busts the dealer just as often,
+            // since the card was as likely to be the dealer's. So hitting is never worse,
+            // and we can skip the big search.
+            return true;
+        }
+        boolean ace = hasAce(playerCards);
+        load(unseen);
+        double stand = stand(total, dealerUp);
+        // Every card the player might draw makes a new deck the dealer has to be worked out
+        // for, which on a cold cache can take many milliseconds. Past the budget, take the
+        // quick answer instead, which leaves the player's draws in the dealer's deck; what
+        // the exact search had finished stays cached for the next decision.
+        deadline = System.nanoTime() + DECISION_BUDGET_NANOS;
+        try {
+            return hit(hardTotal(playerCards), ace, dealerUp, true) > stand;
+        } catch (OutOfTime e) {
+            deadline = 0;
+            load(unseen);
+            return hit(hardTotal(playerCards), ace, dealerUp, false) > stand;
+        } finally {
+            deadline = 0;
+        }
+    }
+
+    public double standEv(List<Card> playerCards, Card dealerUp, int[] unseen) {
+        load(unseen);
+        return stand(BlackjackRules.handValue(playerCards), dealerUp);
+    }
+
+    // exact, with no time limit
+    public double hitEv(List<Card> playerCards, Card dealerUp, int[] unseen) {
+        load(unseen);
+        return hit(hardTotal(playerCards), hasAce(playerCards), dealerUp, true);
+    }
+
+    /**
+     * Chance of each dealer final total: index 0 to 4 for 17 to 21, BUST for a bust.
+     */
+    public double[] dealerDistribution(Card dealerUp, int[] unseen) {
+        load(unseen);
+        return dealer(value(dealerUp), dealerUp.isAce()).clone();
+    }
+
+    public void clearCache() {
+        dealerCache.clear();
+        hitCache.clear();
+    }
+
+    private void load(int[] unseen) {
+        for (int i = 0; i < counts.length; i++) {
+            int max = i == 9 ? 16 : 4;
+            if (unseen[i] < 0 || unseen[i] > max) {
+                throw new IllegalArgumentException("Not a single deck: " + unseen[i] + " cards of value " + (i + 1));
+            }
+            counts[i] = unseen[i];
+        }
+        if (dealerCache.size() > MAX_CACHE_SIZE || hitCache.size() > MAX_CACHE_SIZE) {
+            clearCache();
+        }
+    }
+
+    private double stand(int total, Card dealerUp) {
+        double[] dealer = dealer(value(dealerUp), dealerUp.isAce());
+        double ev = dealer[BUST];
+        for (int i = 0; i < BUST; i++) {
+            int dealerTotal = BlackjackRules.DEALER_STANDS_ON + i;
+            if (dealerTotal < total) {
+                ev += dealer[i];
+            } else if (dealerTotal > total) {
+                ev -= dealer[i];
+            }
+        }
+        if (total == BlackjackRules.BLACKJACK) {
+            // the player's 21 here has three or more cards, so it loses to a dealer
+            // blackjack instead of pushing
+            ev -= dealerBlackjack(dealerUp);
+        }
+        return ev;
+    }
+
+    // chance that the hole card makes a blackjack with the up card
+    private double dealerBlackjack(Card dealerUp) {
+        int left = remaining();
+        if (left == 0) {
+            int[] saved = refill();
+            double p = dealerBlackjack(dealerUp);
+            System.arraycopy(saved, 0, counts, 0, counts.length);
+            return p;
+        }
+        if (dealerUp.isAce()) {
+            return (double) counts[9] / left;
+        }
+        return value(dealerUp) == 10 ? (double) counts[0] / left : 0;
+    }
+
+    // best EV after taking one card, then playing on perfectly; unless exact, the cards
+    // taken stay in the deck the dealer draws from
+    private double hit(int hard, boolean ace, Card dealerUp, boolean exact) {
+        long key = HIT | (exact ? 0 : QUICK) | composition() << 11 | dealerUp.getValue() << 6 | hard << 1 | (ace ? 1 : 0);
+        double[] cached = hitCache.get(key);
+        if (cached != null) {
+            return cached[0];
+        }
+        checkDeadline();
+        int left = remaining();
+        if (left == 0) {
+            // the server reshuffles when the deck runs out, so draw from a full deck
+            int[] saved = refill();
+            double ev = hit(hard, ace, dealerUp, exact);
+            System.arraycopy(saved, 0, counts, 0, counts.length);
+            return ev;
+        }
+        double ev = 0;
+        for (int v = 1; v <= 10; v++) {
+            int n = counts[v - 1];
+            if (n == 0) {
+                continue;
+            }
+            double p = (double) n / left;
+            if (exact) {
+                counts[v - 1]--;
+            }
+            int newHard = hard + v;
+            boolean newAce = ace || v == 1;
+            int total = BlackjackRules.bestTotal(newHard, newAce);
+            if (total > BlackjackRules.BLACKJACK) {
+                ev -= p;
+            } else if (total == BlackjackRules.BLACKJACK) {
+                // the server stands automatically on 21
+                ev += p * stand(total, dealerUp);
+            } else {
+                ev += p * Math.max(stand(total, dealerUp), hit(newHard, newAce, dealerUp, exact));
+            }
+            if (exact) {
+                counts[v - 1]++;
+            }
+        }
+        hitCache.put(key, new double[] { ev });
+        return ev;
+    }
+
+    // distribution of the dealer's final total, drawing from counts
+    private double[] dealer(int hard, boolean ace) {
+        int total = BlackjackRules.bestTotal(hard, ace);
+        if (total >= BlackjackRules.DEALER_STANDS_ON) {
+            return FINAL[total > BlackjackRules.BLACKJACK ? BUST : total - BlackjackRules.DEALER_STANDS_ON];
+        }
+        long key = DEALER | composition() << 6 | hard << 1 | (ace ? 1 : 0);
+        double[] cached = dealerCache.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        checkDeadline();
+        double[] result = new double[BUST + 1];
+        int left = remaining();
+        if (left == 0) {
+            // the server reshuffles when the deck runs out, so draw from a full deck
+            int[] saved = refill();
+            double[] next = dealer(hard, ace);
+            System.arraycopy(saved, 0, counts, 0, counts.length);
+            return next;
+        }
+        for (int v = 1; v <= 10; v++) {
+            int n = counts[v - 1];
+            if (n == 0) {
+                continue;
+            }
+            double p = (double) n / left;
+            counts[v - 1]--;
+            double[] next = dealer(hard + v, ace || v == 1);
+            counts[v - 1]++;
+            for (int i = 0; i <= BUST; i++) {
+                result[i] += p * next[i];
+            }
+        }
+        dealerCache.put(key, result);
+        return result;
+    }
+
+    private void checkDeadline() {
+        if (deadline != 0 && System.nanoTime() > deadline) {
+            throw OUT_OF_TIME;
+        }
+    }
+
+    // fills counts with a whole deck, returning what they held
+    private int[] refill() {
+        int[] saved = counts.clone();
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = i == 9 ? 16 : 4;
+        }
+        return saved;
+    }
+
+    // counts packed 3 bits for each of aces to nines and 5 bits for tens: 32 bits
+    private long composition() {
+        long packed = 0;
+        for (int i = 0; i < 9; i++) {
+            packed = packed << 3 | counts[i];
+        }
+        return packed << 5 | counts[9];
+    }
+
+    private int remaining() {
+        int left = 0;
+        for (int n : counts) {
+            left += n;
+        }
+        return left;
+    }
+
+    private static boolean hasAce(List<Card> cards) {
+        for (int i = 0; i < cards.size(); i++) {
+            if (cards.get(i).isAce()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // total with every ace as 1
+    private static int hardTotal(List<Card> cards) {
+        int hard = 0;
+        for (int i = 0; i < cards.size(); i++) {
+            hard += value(cards.get(i));
+        }
+        return hard;
+    }
+
+    // value with an ace as 1
+    private static int value(Card card) {
+        return card.isAce() ? 1 : card.getValue();
+    }
+
+    // thrown, without a stack trace, to abandon a search that is over its time
+    private static class OutOfTime extends RuntimeException
+    {
+        private static final long serialVersionUID = 1L;
+
+        OutOfTime()
+        {
+            super(null, null, false, false);
+        }
+    }
+
+    /**
+     * Open-addressing hash map from packed keys to results, without boxing the keys.
+     * Keys are never 0 because the top bits tag the kind of entry.
+     */
+    private static class Cache
+    {
+        private long[] keys = new long[1 << 12];
+        private double[][] values = new double[1 << 12][];
+        private int size;
+
+        double[] get(long key) {
+            int mask = keys.length - 1;
+            for (int i = hash(key) & mask; keys[i] != 0; i = (i + 1) & mask) {
+                if (keys[i] == key) {
+                    return values[i];
+                }
+            }
+            return null;
+        }
+
+        void put(long key, double[] value) {
+            if (size * 2 >= keys.length) {
+                resize();
+            }
+            int mask = keys.length - 1;
+            int i = hash(key) & mask;
+            while (keys[i] != 0 && keys[i] != key) {
+                i = (i + 1) & mask;
+            }
+            if (keys[i] == 0) {
+                size++;
+            }
+            keys[i] = key;
+            values[i] = value;
+        }
+
+        int size() {
+            return size;
+        }
+
+        void clear() {
+            Arrays.fill(keys, 0);
+            Arrays.fill(values, null);
+            size = 0;
+        }
+
+        private void resize() {
+            long[] oldKeys = keys;
+            double[][] oldValues = values;
+            keys = new long[oldKeys.length * 2];
+            values = new double[oldKeys.length * 2][];
+            size = 0;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != 0) {
+                    put(oldKeys[i], oldValues[i]);
+                }
+            }
+        }
+
+        private static int hash(long key) {
+            key *= 0x9E3779B97F4A7C15L;
+            return (int) (key ^ (key >>> 32));
+        }
+    }
+}
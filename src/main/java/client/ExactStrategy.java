@@ -0,0 +1,44 @@
+package client;
+
+import java.util.UUID;
+
+/**
+ * Hits or stands on the exact EV of the cards left in the deck, as tracked by a
+ * CardCounter for each session. Bets come from a StrategyTable.
+ */
+public class ExactStrategy implements Strategy
+{
+    private final StrategyTable table;
+    private final CardCounters counters;
+    // EvCalculator is not thread-safe, and its cache is worth keeping between hands
+    private final ThreadLocal<EvCalculator> calculators = ThreadLocal.withInitial(EvCalculator::new);
+    private final ThreadLocal<int[]> unseen = ThreadLocal.withInitial(() -> new int[10]);
+
+    public ExactStrategy(StrategyTable table, CountingSystem system)
+    {
+        this.table = table;
+        this.counters = new CardCounters(system);
+    }
+
+    @Override
+    public void observe(GameState state) {
+        counters.onGameState(null, state);
+    }
+
+    @Override
+    public void finished(UUID sessionId) {
+        counters.remove(sessionId);
+    }
+
+    @Override
+    public int chooseBet(GameState state) {
+        return table.bet(counters.get(state.sessionId).getTrueCount());
+    }
+
+    @Override
+    public boolean shouldHit(GameState state) {
+        int[] counts = unseen.get();
+        counters.get(state.sessionId).getUnseen(counts);
+        return calculators.get().shouldHit(state.getPlayerHand(), state.getDealerHand().get(0), counts);
+    }
+}
@@ -1,10 +1,12 @@
 package client;
 
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 
-import com.google.gson.Gson;
-
 public class GameState {
 
     public UUID sessionId;
@@ -22,8 +24,41 @@ public class GameState {
     public int cardsRemaining;
     public boolean reshuffled;
 
+    // the cards above as Card values; the dealer's face down card is Card.HIDDEN
+    public transient List<Card> playerHand;
+    public transient List<Card> dealerHand;
+
     public static GameState fromJson(String json) {
-        return new Gson().fromJson(json, GameState.class);
+        try {
+            return GameStateDecoder.decode(new StringReader(json));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Filled in when decoded from the server; built from the card names otherwise
+    public List<Card> getPlayerHand() {
+        if (playerHand == null) {
+            playerHand = toCards(playerCards);
+        }
+        return playerHand;
+    }
+
+    public List<Card> getDealerHand() {
+        if (dealerHand == null) {
+            dealerHand = toCards(dealerCards);
+        }
+        return dealerHand;
+    }
+
+    private static List<Card> toCards(List<String> names) {
+        List<Card> cards = new ArrayList<>();
+        if (names != null) {
+            for (String name : names) {
+                cards.add(Card.fromString(name));
+            }
+        }
+        return cards;
     }
 
     @Override
@@ -0,0 +1,118 @@
+package client;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import com.google.gson.JsonParseException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+/**
+ * Reads server responses straight into a GameState with a streaming JsonReader,
+ * without going through Gson's reflection or building an intermediate String.
+ * Card names are turned into Card values while parsing.
+ */
+public class GameStateDecoder
+{
+    public static GameState decode(byte[] json) {
+        try {
+            return decode(new ByteArrayInputStream(json));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static GameState decode(InputStream in) throws IOException {
+        return decode(new InputStreamReader(in, StandardCharsets.UTF_8));
+    }
+
+    public static GameState decode(Reader in) throws IOException {
+        JsonReader reader = new JsonReader(in);
+        GameState state = new GameState();
+        state.playerCards = new ArrayList<>(4);
+        state.playerHand = new ArrayList<>(4);
+        state.dealerCards = new ArrayList<>(4);
+        state.dealerHand = new ArrayList<>(4);
+        try {
+            reader.beginObject();
+            while (reader.hasNext()) {
+                String name = reader.nextName();
+                if (reader.peek() == JsonToken.NULL) {
+                    // every nullable field is already null, and a null card list stays empty
+                    reader.nextNull();
+                    continue;
+                }
+                switch (name) {
+                    case "sessionId":
+                        state.sessionId = UUID.fromString(reader.nextString());
+                        break;
+                    case "playerCards":
+                        readCards(reader, state.playerCards, state.playerHand);
+                        break;
+                    case "playerValue":
+                        state.playerValue = reader.nextInt();
+                        break;
+                    case "dealerCards":
+                        readCards(reader, state.dealerCards, state.dealerHand);
+                        break;
+                    case "dealerValue":
+                        state.dealerValue = reader.nextInt();
+                        break;
+                    case "phase":
+                        state.phase = reader.nextString();
+                        break;
+                    case "outcome":
+                        state.outcome = reader.nextString();
+                        break;
+                    case "balance":
+                        state.balance = reader.nextInt();
+                        break;
+                    case "currentBet":
+                        state.currentBet = reader.nextInt();
+                        break;
+                    case "canHit":
+                        state.canHit = reader.nextBoolean();
+                        break;
+                    case "canStand":
+                        state.canStand = reader.nextBoolean();
+                        break;
+                    case "gameOver":
+                        state.gameOver = reader.nextBoolean();
+                        break;
+                    case "cardsRemaining":
+                        state.cardsRemaining = reader.nextInt();
+                        break;
+                    case "reshuffled":
+                    case "reShuffled": // spelling used in the README
+                        state.reshuffled = reader.nextBoolean();
+                        break;
+                    default:
+                        reader.skipValue();
+                }
+            }
+            reader.endObject();
+        } catch (IllegalStateException | IllegalArgumentException e) {
+            // wrong token type or a bad UUID/card name
+            throw new JsonParseException("Invalid game state: " + e.getMessage(), e);
+        }
+        return state;
+    }
+
+    private static void readCards(JsonReader reader, List<String> names, List<Card> cards) throws IOException {
+        reader.beginArray();
+        while (reader.hasNext()) {
+            String name = reader.nextString();
+            names.add(name);
+            cards.add(Card.fromString(name));
+        }
+        reader.endArray();
+    }
+}
@@ -0,0 +1,19 @@
+package client;
+
+import java.util.UUID;
+
+/**
+ * Told about every GameState the server sends back.
+ * Called on whichever thread received the response, so implementations must be thread-safe
+ * and should return quickly.
+ */
+public interface GameStateListener
+{
+    void onGameState(Action action, GameState state);
+
+    /**
+     * The session was finished and will send no more states, so anything kept for it can go.
+     */
+    default void onFinished(UUID sessionId) {
+    }
+}
@@ -0,0 +1,320 @@
+package client;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only binary log of every GameState the client sees.
+ * Records are written into memory-mapped segment files (journal-000000.bin,
+ * journal-000001.bin, ...) in a directory. When a segment is full the journal rolls
+ * over to the next one. Opening a journal on a directory that already has segments
+ * continues after the last one and never overwrites anything.
+ *
+ * Register it with ClientConnecter.addListener to record everything a connecter does,
+ * and read it back with replay().
+ *
+ * Each record carries a CRC32 of its contents, so a record only half written when the
+ * process died is spotted on read: replay() stops reading a segment at its first bad
+ * record and goes on with the next segment, which a reopened journal starts.
+ *
+ * Record layout, big-endian:
+ *   short  length of the record after the checksum (0 marks the end of a segment)
+ *   int    CRC32 of those length bytes
+ *   long   wall clock time in millis
+ *   long   session id, most significant bits
+ *   long   session id, least significant bits
+ *   byte   Action ordinal
+ *   byte   phase code or -1 (see BlackjackRules.PHASES)
+ *   byte   outcome code or -1 (see BlackjackRules.OUTCOMES)
+ *   byte   flags (see CompactHand)
+ *   int    current bet
+ *   int    balance
+ *   byte   player value
+ *   byte   dealer value or -1
+ *   byte   cards remaining
+ *   byte   number of player cards, then that many Card ordinals
+ *   byte   number of dealer cards, then that many Card ordinals
+ */
+public class HandJournal implements GameStateListener, Closeable
+{
+    public static final int DEFAULT_SEGMENT_SIZE = 64 * 1024 * 1024;
+
+    private static final String PREFIX = "journal-";
+    private static final String SUFFIX = ".bin";
+    // fixed part of a record after the length and checksum
+    private static final int HEADER_SIZE = 8 + 16 + 4 + 8 + 3 + 2;
+    // a hand can never hold more than the whole deck
+    private static final int MAX_CARDS = BlackjackRules.DECK_SIZE + 1;
+    private static final int MAX_LENGTH = HEADER_SIZE + 2 * MAX_CARDS;
+    private static final int MAX_RECORD_SIZE = 2 + 4 + MAX_LENGTH;
+
+    private final Path directory;
+    private final int segmentSize;
+    private int segment;
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+    private final CRC32 crc = new CRC32();
+
+    public HandJournal(Path directory) throws IOException
+    {
+        this(directory, DEFAULT_SEGMENT_SIZE);
+    }
+
+    public HandJournal(Path directory, int segmentSize) throws IOException
+    {
+        if (segmentSize < MAX_RECORD_SIZE + 2) {
+            throw new IllegalArgumentException("Segment size too small: " + segmentSize);
+        }
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        Files.createDirectories(directory);
+        List<Path> existing = segments(directory);
+        segment = existing.isEmpty() ? 0 : segmentNumber(existing.get(existing.size() - 1)) + 1;
+        openSegment();
+    }
+
+    @Override
+    public void onGameState(Action action, GameState state) {
+        append(action, state);
+    }
+
+    public synchronized void append(Action action, GameState state) {
+        if (buffer == null) {
+            throw new IllegalStateException("Journal is closed");
+        }
+        List<Card> player = state.getPlayerHand();
+        List<Card> dealer = state.getDealerHand();
+        int length = HEADER_SIZE + player.size() + dealer.size();
+        // always leave room for the end marker
+        if (buffer.remaining() < 2 + 4 + length + 2) {
+            rollOver();
+        }
+        int flags = (state.canHit ? CompactHand.CAN_HIT : 0)
+            | (state.canStand ? CompactHand.CAN_STAND : 0)
+            | (state.gameOver ? CompactHand.GAME_OVER : 0)
+            | (state.reshuffled ? CompactHand.RESHUFFLED : 0);
+        int start = buffer.position();
+        buffer.putShort((short) length);
+        // the checksum goes in once the rest is written
+        buffer.putInt(0);
+        buffer.putLong(System.currentTimeMillis());
+        buffer.putLong(state.sessionId == null ? 0 : state.sessionId.getMostSignificantBits());
+        buffer.putLong(state.sessionId == null ? 0 : state.sessionId.getLeastSignificantBits());
+        buffer.put((byte) action.ordinal());
+        buffer.put(BlackjackRules.phaseCode(state.phase));
+        buffer.put(BlackjackRules.outcomeCode(state.outcome));
+        buffer.put((byte) flags);
+        buffer.putInt(state.currentBet);
+        buffer.putInt(state.balance);
+        buffer.put((byte) state.playerValue);
+        buffer.put((byte) (state.dealerValue == null ? -1 : state.dealerValue));
+        buffer.put((byte) state.cardsRemaining);
+        putCards(player);
+        putCards(dealer);
+        buffer.putInt(start + 2, checksum(crc, buffer, start + 6, length));
+    }
+
+    /**
+     * Forces everything written so far out to disk.
+     */
+    public synchronized void flush() {
+        if (buffer != null) {
+            buffer.force();
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (buffer != null) {
+            buffer.force();
+            // the mapping itself is released when the buffer is garbage collected
+            buffer = null;
+            channel.close();
+        }
+    }
+
+    private void putCards(List<Card> cards) {
+        buffer.put((byte) cards.size());
+        for (int i = 0; i < cards.size(); i++) {
+            buffer.put((byte) cards.get(i).ordinal());
+        }
+    }
+
+    private void rollOver() {
+        try {
+            buffer.force();
+            buffer = null;
+            channel.close();
+            segment++;
+            openSegment();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void openSegment() throws IOException {
+        channel = FileChannel.open(directory.resolve(String.format(PREFIX + "%06d" + SUFFIX, segment)),
+            StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        // the file is zero-filled, so an unfinished segment already ends with a 0 length
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+    }
+
+    private static int checksum(CRC32 crc, ByteBuffer buffer, int offset, int length) {
+        ByteBuffer record = buffer.duplicate();
+        record.limit(offset + length).position(offset);
+        crc.reset();
+        crc.update(record);
+        return (int) crc.getValue();
+    }
+
+    private static List<Path> segments(Path directory) throws IOException {
+        List<Path> segments = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, PREFIX + "*" + SUFFIX)) {
+            for (Path file : files) {
+                segments.add(file);
+            }
+        }
+        // zero-padded numbers sort in order
+        Collections.sort(segments);
+        return segments;
+    }
+
+    private static int segmentNumber(Path segment) {
+        String name = segment.getFileName().toString();
+        return Integer.parseInt(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+    }
+
+    /**
+     * Reads every record in the directory, oldest first, and passes each to the visitor.
+     * The same Entry object is reused for every record, so copy anything you want to keep.
+     * A segment is read up to its first torn or corrupt record. Returns the number of
+     * records read.
+     */
+    public static long replay(Path directory, Visitor visitor) throws IOException {
+        Entry entry = new Entry();
+        CRC32 crc = new CRC32();
+        long count = 0;
+        for (Path file : segments(directory)) {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                MappedByteBuffer in = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                while (in.remaining() >= 2) {
+                    int length = in.getShort();
+                    if (length < HEADER_SIZE || length > MAX_LENGTH || in.remaining() < 4 + length) {
+                        // 0 is the end of the segment; anything else out of range is a torn record
+                        break;
+                    }
+                    int expected = in.getInt();
+                    if (checksum(crc, in, in.position(), length) != expected) {
+                        break;
+                    }
+                    entry.read(in);
+                    visitor.visit(entry);
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    public interface Visitor
+    {
+        void visit(Entry entry);
+    }
+
+    /**
+     * One record of the journal.
+     */
+    public static class Entry
+    {
+        public long timestamp;
+        public long sessionIdMost;
+        public long sessionIdLeast;
+        public Action action;
+        public String phase;
+        public String outcome;
+        public byte flags;
+        public int currentBet;
+        public int balance;
+        public int playerValue;
+        // -1 while the dealer's hole card is hidden
+        public int dealerValue;
+        public int cardsRemaining;
+        public int playerCardCount;
+        public final byte[] playerCards = new byte[MAX_CARDS];
+        public int dealerCardCount;
+        public final byte[] dealerCards = new byte[MAX_CARDS];
+
+        public UUID getSessionId() {
+            return new UUID(sessionIdMost, sessionIdLeast);
+        }
+
+        public Card getPlayerCard(int i) {
+            return CompactHand.toCard(playerCards[i]);
+        }
+
+        public Card getDealerCard(int i) {
+            return CompactHand.toCard(dealerCards[i]);
+        }
+
+        public boolean isGameOver() {
+            return (flags & CompactHand.GAME_OVER) != 0;
+        }
+
+        public boolean isReshuffled() {
+            return (flags & CompactHand.RESHUFFLED) != 0;
+        }
+
+        void read(MappedByteBuffer in) {
+            timestamp = in.getLong();
+            sessionIdMost = in.getLong();
+            sessionIdLeast = in.getLong();
+            action = Action.fromByte(in.get());
+            phase = BlackjackRules.phase(in.get());
+            outcome = BlackjackRules.outcome(in.get());
+            flags = in.get();
+            currentBet = in.getInt();
+            balance = in.getInt();
+            playerValue = in.get();
+            dealerValue = in.get();
+            cardsRemaining = in.get();
+            playerCardCount = in.get();
+            in.get(playerCards, 0, playerCardCount);
+            dealerCardCount = in.get();
+            in.get(dealerCards, 0, dealerCardCount);
+        }
+    }
+
+    // usage: HandJournal <directory>
+    // prints a summary of the hands recorded in the journal
+    public static void main(String[] args) throws IOException {
+        Path directory = Paths.get(args.length > 0 ? args[0] : "journal");
+        long[] totals = new long[BlackjackRules.OUTCOMES.size() + 1];
+        long start = System.nanoTime();
+        long records = replay(directory, entry -> {
+            if (entry.outcome != null && entry.action != Action.RESUME) {
+                totals[BlackjackRules.outcomeCode(entry.outcome)]++;
+                totals[totals.length - 1] += BlackjackRules.payout(entry.outcome, entry.currentBet);
+            }
+        });
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        System.out.println("Read " + records + " records in " + millis + " ms");
+        for (String outcome : BlackjackRules.OUTCOMES) {
+            System.out.println(outcome + ": " + totals[BlackjackRules.outcomeCode(outcome)]);
+        }
+        System.out.println("Net: " + totals[totals.length - 1]);
+    }
+}
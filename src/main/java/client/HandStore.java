@@ -0,0 +1,183 @@
+package client;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Column-oriented store for millions of hands.
+ * Each field of a GameState lives in its own primitive array, cards of all hands
+ * share one byte array, and each session id is stored once and referred to by index.
+ * A hand takes roughly 25 bytes plus one byte per card.
+ *
+ * Not thread-safe; give each thread its own store or synchronize around add().
+ */
+public class HandStore
+{
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final List<UUID> sessions = new ArrayList<>();
+    private final Map<UUID, Integer> sessionIndex = new HashMap<>();
+
+    private int size;
+    private int[] session = new int[INITIAL_CAPACITY];
+    private int[] balance = new int[INITIAL_CAPACITY];
+    private int[] currentBet = new int[INITIAL_CAPACITY];
+    private byte[] playerValue = new byte[INITIAL_CAPACITY];
+    private byte[] dealerValue = new byte[INITIAL_CAPACITY];
+    private byte[] phase = new byte[INITIAL_CAPACITY];
+    private byte[] outcome = new byte[INITIAL_CAPACITY];
+    private byte[] cardsRemaining = new byte[INITIAL_CAPACITY];
+    private byte[] flags = new byte[INITIAL_CAPACITY];
+    private byte[] playerCardCount = new byte[INITIAL_CAPACITY];
+    private byte[] dealerCardCount = new byte[INITIAL_CAPACITY];
+    // where the hand's cards start in cards: player cards first, then dealer cards
+    private int[] cardOffset = new int[INITIAL_CAPACITY];
+
+    private int cardsSize;
+    private byte[] cards = new byte[INITIAL_CAPACITY * 6];
+
+    public void add(GameState state) {
+        add(CompactHand.from(state));
+    }
+
+    public void add(CompactHand hand) {
+        if (size == session.length) {
+            grow();
+        }
+        int i = size;
+        session[i] = sessionIndex.computeIfAbsent(hand.sessionId, id -> {
+            sessions.add(id);
+            return sessions.size() - 1;
+        });
+        balance[i] = hand.balance;
+        currentBet[i] = hand.currentBet;
+        playerValue[i] = hand.playerValue;
+        dealerValue[i] = hand.dealerValue;
+        phase[i] = BlackjackRules.phaseCode(hand.phase);
+        outcome[i] = BlackjackRules.outcomeCode(hand.outcome);
+        cardsRemaining[i] = hand.cardsRemaining;
+        flags[i] = hand.flags;
+        playerCardCount[i] = (byte) hand.playerCards.length;
+        dealerCardCount[i] = (byte) hand.dealerCards.length;
+
+        int needed = cardsSize + hand.playerCards.length + hand.dealerCards.length;
+        if (needed > cards.length) {
+            cards = Arrays.copyOf(cards, Math.max(needed, cards.length * 2));
+        }
+        cardOffset[i] = cardsSize;
+        System.arraycopy(hand.playerCards, 0, cards, cardsSize, hand.playerCards.length);
+        cardsSize += hand.playerCards.length;
+        System.arraycopy(hand.dealerCards, 0, cards, cardsSize, hand.dealerCards.length);
+        cardsSize += hand.dealerCards.length;
+        size++;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public CompactHand get(int i) {
+        checkIndex(i);
+        int offset = cardOffset[i];
+        byte[] player = Arrays.copyOfRange(cards, offset, offset + playerCardCount[i]);
+        offset += playerCardCount[i];
+        byte[] dealer = Arrays.copyOfRange(cards, offset, offset + dealerCardCount[i]);
+        return new CompactHand(sessions.get(session[i]), player, playerValue[i], dealer, dealerValue[i],
+            BlackjackRules.phase(phase[i]), BlackjackRules.outcome(outcome[i]), balance[i], currentBet[i],
+            cardsRemaining[i], flags[i]);
+    }
+
+    // The accessors below read a single column without building a CompactHand.
+
+    public UUID getSessionId(int i) {
+        checkIndex(i);
+        return sessions.get(session[i]);
+    }
+
+    public int getBalance(int i) {
+        checkIndex(i);
+        return balance[i];
+    }
+
+    public int getCurrentBet(int i) {
+        checkIndex(i);
+        return currentBet[i];
+    }
+
+    public int getPlayerValue(int i) {
+        checkIndex(i);
+        return playerValue[i];
+    }
+
+    // -1 while the dealer's hole card is hidden
+    public int getDealerValue(int i) {
+        checkIndex(i);
+        return dealerValue[i];
+    }
+
+    public String getPhase(int i) {
+        checkIndex(i);
+        return BlackjackRules.phase(phase[i]);
+    }
+
+    public String getOutcome(int i) {
+        checkIndex(i);
+        return BlackjackRules.outcome(outcome[i]);
+    }
+
+    public int getCardsRemaining(int i) {
+        checkIndex(i);
+        return cardsRemaining[i];
+    }
+
+    public boolean isReshuffled(int i) {
+        checkIndex(i);
+        return (flags[i] & CompactHand.RESHUFFLED) != 0;
+    }
+
+    public int getPlayerCardCount(int i) {
+        checkIndex(i);
+        return playerCardCount[i];
+    }
+
+    public Card getPlayerCard(int i, int card) {
+        checkIndex(i);
+        return CompactHand.toCard(cards[cardOffset[i] + card]);
+    }
+
+    public int getDealerCardCount(int i) {
+        checkIndex(i);
+        return dealerCardCount[i];
+    }
+
+    public Card getDealerCard(int i, int card) {
+        checkIndex(i);
+        return CompactHand.toCard(cards[cardOffset[i] + playerCardCount[i] + card]);
+    }
+
+    private void checkIndex(int i) {
+        if (i < 0 || i >= size) {
+            throw new IndexOutOfBoundsException("Hand " + i + " of " + size);
+        }
+    }
+
+    private void grow() {
+        int capacity = session.length * 2;
+        session = Arrays.copyOf(session, capacity);
+        balance = Arrays.copyOf(balance, capacity);
+        currentBet = Arrays.copyOf(currentBet, capacity);
+        playerValue = Arrays.copyOf(playerValue, capacity);
+        dealerValue = Arrays.copyOf(dealerValue, capacity);
+        phase = Arrays.copyOf(phase, capacity);
+        outcome = Arrays.copyOf(outcome, capacity);
+        cardsRemaining = Arrays.copyOf(cardsRemaining, capacity);
+        flags = Arrays.copyOf(flags, capacity);
+        playerCardCount = Arrays.copyOf(playerCardCount, capacity);
+        dealerCardCount = Arrays.copyOf(dealerCardCount, capacity);
+        cardOffset = Arrays.copyOf(cardOffset, capacity);
+    }
+}
@@ -0,0 +1,230 @@
+package client;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Plays many sessions at once with no user input.
+ * Each session runs on its own virtual thread, and a global cap limits how many
+ * hands are in progress on the server at the same time. Where there are no virtual
+ * threads, sessions share a pool of that many platform threads.
+ */
+public class HeadlessRunner
+{
+    private static final String BASE_URL = "http://euclid.knox.edu:8080/api/blackjack";
+    private static final String USERNAME = "jspacco"; // replace with your username
+    private static final String PASSWORD = "12347"; // replace with your from the file posted to Classroom
+
+    private final BlackjackApi api;
+    private final Strategy strategy;
+    private final int handsPerSession;
+    private final int maxConcurrent;
+    private final Semaphore handsInProgress;
+
+    private final List<GameStateListener> listeners = new CopyOnWriteArrayList<>();
+
+    private final LongAdder handsPlayed = new LongAdder();
+    private final LongAdder failedSessions = new LongAdder();
+    private final LongAdder netBalance = new LongAdder();
+
+    public HeadlessRunner(BlackjackApi api, Strategy strategy, int handsPerSession, int maxConcurrent)
+    {
+        if (handsPerSession < 1 || maxConcurrent < 1) {
+            throw new IllegalArgumentException("handsPerSession and maxConcurrent must be positive");
+        }
+        this.api = api;
+        this.strategy = strategy;
+        this.handsPerSession = handsPerSession;
+        this.maxConcurrent = maxConcurrent;
+        this.handsInProgress = new Semaphore(maxConcurrent);
+    }
+
+    /**
+     * Listeners are told about every response, from every session's thread.
+     */
+    public void addListener(GameStateListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Starts the given number of new sessions, plays handsPerSession hands in each,
+     * and blocks until they have all finished.
+     */
+    public RunResult run(int sessions) throws InterruptedException {
+        long start = System.nanoTime();
+        // without virtual threads, no more sessions run at once than can have a hand in progress
+        ExecutorService executor = Threads.newThreadPerTaskExecutor(maxConcurrent);
+        for (int i = 0; i < sessions; i++) {
+            executor.execute(this::playSession);
+        }
+        executor.shutdown();
+        executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+
+        RunResult result = new RunResult();
+        result.sessions = sessions;
+        result.failedSessions = failedSessions.sum();
+        result.handsPlayed = handsPlayed.sum();
+        result.netBalance = netBalance.sum();
+        result.elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        return result;
+    }
+
+    private void playSession() {
+        GameState state = null;
+        try {
+            state = api.startGame();
+            observe(Action.START, state);
+            int startingBalance = state.balance;
+            for (int hand = 0; hand < handsPerSession; hand++) {
+                handsInProgress.acquire();
+                try {
+                    state = playHand(state);
+                } finally {
+                    handsInProgress.release();
+                }
+                handsPlayed.increment();
+            }
+            netBalance.add(state.balance - startingBalance);
+            api.finishGame(state.sessionId);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failedSessions.increment();
+        } catch (Exception e) {
+            System.err.println("Session " + (state == null ? "(not started)" : state.sessionId) + " failed: " + e);
+            failedSessions.increment();
+        } finally {
+            if (state != null) {
+                finished(state.sessionId);
+            }
+        }
+    }
+
+    // this runner won't touch the session again, finished or not
+    private void finished(UUID sessionId) {
+        api.release(sessionId);
+        strategy.finished(sessionId);
+        for (GameStateListener listener : listeners) {
+            listener.onFinished(sessionId);
+        }
+    }
+
+    private GameState playHand(GameState state) throws Exception {
+        if ("RESOLVED".equals(state.phase)) {
+            state = api.newGame(state.sessionId);
+            observe(Action.RESET, state);
+        }
+        state = api.placeBet(state.sessionId, strategy.chooseBet(state));
+        observe(Action.BET, state);
+        while (!state.gameOver && state.canHit) {
+            if (strategy.shouldHit(state)) {
+                state = api.hit(state.sessionId);
+                observe(Action.HIT, state);
+            } else {
+                state = api.stand(state.sessionId);
+                observe(Action.STAND, state);
+            }
+        }
+        return state;
+    }
+
+    private void observe(Action action, GameState state) {
+        strategy.observe(state);
+        for (GameStateListener listener : listeners) {
+            listener.onGameState(action, state);
+        }
+    }
+
+    public static class RunResult
+    {
+        public int sessions;
+        public long failedSessions;
+        public long handsPlayed;
+        public long netBalance;
+        public long elapsedMillis;
+
+        public double handsPerSecond() {
+            return elapsedMillis == 0 ? 0 : handsPlayed * 1000.0 / elapsedMillis;
+        }
+
+        @Override
+        public String toString()
+        {
+            return "sessions: " + sessions + " (" + failedSessions + " failed)\n" +
+                "hands played: " + handsPlayed + "\n" +
+                "net balance: " + netBalance + "\n" +
+                "elapsed: " + elapsedMillis + " ms\n" +
+                String.format("hands/sec: %.1f", handsPerSecond()) + "\n";
+        }
+    }
+
+    // usage: HeadlessRunner [sessions] [handsPerSession] [maxConcurrent] [local|remote|replay|replay-realtime] [transcript|-] [journal]
+    // "local" plays against LocalBlackjackEngine instead of the server.
+    // "remote" with a transcript file records the server traffic to it;
+    // "replay" plays a recorded transcript back at full speed (run with the same settings as the recording);
+    // "replay-realtime" plays it back at the pace it was recorded.
+    // A journal directory logs every response with HandJournal; pass "-" for the transcript to journal without one
+    public static void main(String[] args) throws Exception {
+        int sessions = args.length > 0 ? Integer.parseInt(args[0]) : 10;
+        int handsPerSession = args.length > 1 ? Integer.parseInt(args[1]) : 100;
+        int maxConcurrent = args.length > 2 ? Integer.parseInt(args[2]) : 50;
+        String mode = args.length > 3 ? args[3].toLowerCase() : "remote";
+        Path transcript = args.length > 4 && !args[4].equals("-") ? Path.of(args[4]) : null;
+        Path journalDirectory = args.length > 5 ? Path.of(args[5]) : null;
+
+        BlackjackApi api;
+        Transcript.Recorder recorder = null;
+        AccountPool pool = null;
+        if (mode.equals("local")) {
+            api = new LocalBlackjackEngine();
+        } else if (mode.equals("replay") || mode.equals("replay-realtime")) {
+            if (transcript == null) {
+                System.out.println("usage: HeadlessRunner [sessions] [handsPerSession] [maxConcurrent] " + mode + " <transcript>");
+                return;
+            }
+            api = ReplayApi.load(transcript, mode.equals("replay-realtime"));
+        } else {
+            // sessions are spread over every account in accounts.txt, if there is one
+            List<Account> accounts = Files.exists(Account.DEFAULT_FILE)
+                ? Account.readAll(Account.DEFAULT_FILE)
+                : List.of(new Account(USERNAME, PASSWORD));
+            pool = new AccountPool(BASE_URL, accounts);
+            if (transcript != null) {
+                recorder = new Transcript.Recorder(transcript);
+                pool.setRecorder(recorder);
+            }
+            api = pool;
+        }
+        HeadlessRunner runner = new HeadlessRunner(api, new TableStrategy(StrategyTable.basic(), CountingSystem.HI_LO),
+            handsPerSession, maxConcurrent);
+        // a line of running stats every second while the sessions play
+        LiveStats liveStats = new LiveStats();
+        runner.addListener(liveStats);
+        HandJournal journal = null;
+        if (journalDirectory != null) {
+            journal = new HandJournal(journalDirectory);
+            runner.addListener(journal);
+        }
+        liveStats.startTicker(System.out, 1, TimeUnit.SECONDS);
+        System.out.println("Playing " + handsPerSession + " hands in each of " + sessions + " sessions...");
+        HeadlessRunner.RunResult result = runner.run(sessions);
+        liveStats.stop();
+        System.out.println(liveStats.snapshot().toLine());
+        System.out.println(result);
+        if (pool != null) {
+            System.out.print(pool);
+        }
+        if (journal != null) {
+            journal.close();
+        }
+        if (recorder != null) {
+            recorder.close();
+        }
+    }
+}
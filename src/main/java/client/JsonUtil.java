@@ -13,5 +13,16 @@ public class JsonUtil {
                 return LocalDateTime.parse(json.getAsString(), DateTimeFormatter.ISO_LOCAL_DATE_TIME);
             }
         })
+        .registerTypeAdapter(LocalDateTime.class, new JsonSerializer<LocalDateTime>() {
+            public JsonElement serialize(LocalDateTime time, java.lang.reflect.Type type,
+                                         JsonSerializationContext context) {
+                return new JsonPrimitive(time.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
+            }
+        })
         .create();
+
+    static {
+        // build the session list adapter up front so the first listSessions() isn't slower than the rest
+        GSON.getAdapter(SessionSummary.class);
+    }
 }
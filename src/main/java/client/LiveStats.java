@@ -0,0 +1,207 @@
+package client;
+
+import java.io.PrintStream;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Running totals over every hand resolved by any number of sessions: outcome rates,
+ * EV and variance per hand, and hands per second.
+ *
+ * Add it as a GameStateListener wherever hands are played. Each hand is counted once,
+ * when a bet, hit or stand comes back resolved. The counters are LongAdders, which
+ * spread concurrent updates over separate cells, so thousands of sessions can report
+ * at once without contending. Reading adds the cells up; start() publishes a snapshot
+ * to subscribers every period.
+ */
+public class LiveStats implements GameStateListener
+{
+    private final LongAdder hands = new LongAdder();
+    private final LongAdder wins = new LongAdder();
+    private final LongAdder blackjacks = new LongAdder();
+    private final LongAdder pushes = new LongAdder();
+    private final LongAdder losses = new LongAdder();
+    private final LongAdder totalBet = new LongAdder();
+    private final LongAdder net = new LongAdder();
+    private final LongAdder netSquared = new LongAdder();
+    private final long startNanos = System.nanoTime();
+
+    private final List<Consumer<Snapshot>> subscribers = new CopyOnWriteArrayList<>();
+    private ScheduledExecutorService publisher;
+    private Snapshot last;
+
+    @Override
+    public void onGameState(Action action, GameState state) {
+        if ((action == Action.BET || action == Action.HIT || action == Action.STAND)
+            && BlackjackRules.RESOLVED.equals(state.phase) && state.outcome != null) {
+            record(state.outcome, state.currentBet);
+        }
+    }
+
+    public void record(String outcome, int bet) {
+        switch (outcome) {
+            case BlackjackRules.PLAYER_WINS:
+                wins.increment();
+                break;
+            case BlackjackRules.PLAYER_BLACKJACK:
+                blackjacks.increment();
+                break;
+            case BlackjackRules.PUSH:
+                pushes.increment();
+                break;
+            default:
+                losses.increment();
+                break;
+        }
+        long change = BlackjackRules.payout(outcome, bet);
+        hands.increment();
+        totalBet.add(bet);
+        net.add(change);
+        netSquared.add(change * change);
+    }
+
+    /**
+     * Totals so far. Counters are read one after another while hands keep coming in,
+     * so a snapshot can be off by the few hands resolved while it was taken.
+     */
+    public Snapshot snapshot() {
+        Snapshot snapshot = new Snapshot();
+        snapshot.elapsedNanos = System.nanoTime() - startNanos;
+        snapshot.hands = hands.sum();
+        snapshot.wins = wins.sum();
+        snapshot.blackjacks = blackjacks.sum();
+        snapshot.pushes = pushes.sum();
+        snapshot.losses = losses.sum();
+        snapshot.totalBet = totalBet.sum();
+        snapshot.net = net.sum();
+        snapshot.netSquared = netSquared.sum();
+        snapshot.recentHandsPerSecond = snapshot.handsPerSecond();
+        return snapshot;
+    }
+
+    /**
+     * Called with a fresh snapshot every period once start() has been called,
+     * on the publisher thread.
+     */
+    public void subscribe(Consumer<Snapshot> subscriber) {
+        subscribers.add(subscriber);
+    }
+
+    public void unsubscribe(Consumer<Snapshot> subscriber) {
+        subscribers.remove(subscriber);
+    }
+
+    public synchronized void start(long period, TimeUnit unit) {
+        stop();
+        publisher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "live-stats");
+            thread.setDaemon(true);
+            return thread;
+        });
+        publisher.scheduleAtFixedRate(this::publish, period, period, unit);
+    }
+
+    public synchronized void stop() {
+        if (publisher != null) {
+            publisher.shutdown();
+            publisher = null;
+        }
+    }
+
+    /**
+     * Prints a one-line summary to the stream every period.
+     */
+    public void startTicker(PrintStream out, long period, TimeUnit unit) {
+        subscribe(snapshot -> out.println(snapshot.toLine()));
+        start(period, unit);
+    }
+
+    private void publish() {
+        Snapshot snapshot = snapshot();
+        // hands per second over the last period, not since the start
+        Snapshot previous = last;
+        if (previous != null) {
+            snapshot.recentHandsPerSecond = (snapshot.hands - previous.hands) * 1e9
+                / Math.max(1, snapshot.elapsedNanos - previous.elapsedNanos);
+        }
+        last = snapshot;
+        for (Consumer<Snapshot> subscriber : subscribers) {
+            subscriber.accept(snapshot);
+        }
+    }
+
+    public static class Snapshot
+    {
+        public long elapsedNanos;
+        public long hands;
+        public long wins;
+        public long blackjacks;
+        public long pushes;
+        public long losses;
+        public long totalBet;
+        public long net;
+        public long netSquared;
+        // over the last period on published snapshots, otherwise since the start
+        public double recentHandsPerSecond;
+
+        public double winRate() {
+            return rate(wins);
+        }
+
+        public double blackjackRate() {
+            return rate(blackjacks);
+        }
+
+        public double pushRate() {
+            return rate(pushes);
+        }
+
+        public double lossRate() {
+            return rate(losses);
+        }
+
+        // average change in balance per hand
+        public double evPerHand() {
+            return hands == 0 ? 0 : (double) net / hands;
+        }
+
+        public double variance() {
+            double mean = evPerHand();
+            return hands == 0 ? 0 : (double) netSquared / hands - mean * mean;
+        }
+
+        // half-width of the 95% confidence interval for evPerHand
+        public double evMargin() {
+            return hands == 0 ? 0 : 1.96 * Math.sqrt(variance() / hands);
+        }
+
+        public double returnOnBets() {
+            return totalBet == 0 ? 0 : (double) net / totalBet;
+        }
+
+        public double handsPerSecond() {
+            return elapsedNanos == 0 ? 0 : hands * 1e9 / elapsedNanos;
+        }
+
+        private double rate(long count) {
+            return hands == 0 ? 0 : (double) count / hands;
+        }
+
+        public String toLine() {
+            return String.format("hands %d  win %.1f%%  bj %.1f%%  push %.1f%%  loss %.1f%%  EV/hand %.3f (+-%.3f)  sd %.2f  net %d  %.1f hands/s",
+                hands, 100 * winRate(), 100 * blackjackRate(), 100 * pushRate(), 100 * lossRate(),
+                evPerHand(), evMargin(), Math.sqrt(variance()), net, recentHandsPerSecond);
+        }
+
+        @Override
+        public String toString()
+        {
+            return toLine();
+        }
+    }
+}
@@ -0,0 +1,254 @@
+package client;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Plays blackjack in-process with the same rules and the same GameState
+ * transitions as the REST server, for offline testing and fast strategy runs.
+ * One engine holds the sessions of one user.
+ */
+public class LocalBlackjackEngine implements BlackjackApi
+{
+    private final ConcurrentHashMap<UUID, Table> tables = new ConcurrentHashMap<>();
+    private final SplittableRandom random;
+
+    public LocalBlackjackEngine()
+    {
+        this(System.nanoTime());
+    }
+
+    // the same seed always deals the same cards, session by session
+    public LocalBlackjackEngine(long seed)
+    {
+        this.random = new SplittableRandom(seed);
+    }
+
+    @Override
+    public List<SessionSummary> listSessions() {
+        List<SessionSummary> sessions = new ArrayList<>();
+        for (Table table : tables.values()) {
+            synchronized (table) {
+                SessionSummary summary = new SessionSummary();
+                summary.sessionId = table.sessionId;
+                summary.balance = table.balance;
+                summary.currentBet = table.currentBet;
+                summary.phase = table.phase;
+                summary.outcome = table.outcome;
+                summary.lastAccess = table.lastAccess;
+                sessions.add(summary);
+            }
+        }
+        return sessions;
+    }
+
+    @Override
+    public GameState startGame() {
+        SplittableRandom tableRandom;
+        synchronized (random) {
+            tableRandom = random.split();
+        }
+        Table table = new Table(UUID.randomUUID(), new Shoe(tableRandom));
+        tables.put(table.sessionId, table);
+        synchronized (table) {
+            return table.toGameState();
+        }
+    }
+
+    @Override
+    public GameState newGame(UUID sessionId) {
+        Table table = table(sessionId);
+        synchronized (table) {
+            if (!BlackjackRules.RESOLVED.equals(table.phase)) {
+                throw new IllegalStateException("Cannot reset in phase " + table.phase);
+            }
+            table.playerCards.clear();
+            table.dealerCards.clear();
+            table.phase = BlackjackRules.BETTING;
+            table.outcome = null;
+            table.reshuffled = false;
+            return table.toGameState();
+        }
+    }
+
+    @Override
+    public GameState placeBet(UUID sessionId, int amount) {
+        if (!BlackjackRules.isValidBet(amount)) {
+            throw new IllegalArgumentException("Bet must be a positive multiple of " + BlackjackRules.BET_UNIT + ": " + amount);
+        }
+        Table table = table(sessionId);
+        synchronized (table) {
+            if (!BlackjackRules.BETTING.equals(table.phase)) {
+                throw new IllegalStateException("Cannot bet in phase " + table.phase);
+            }
+            if (table.shoe.remaining() < BlackjackRules.RESHUFFLE_BELOW) {
+                table.shoe.shuffle();
+                table.reshuffled = true;
+            }
+            table.currentBet = amount;
+            table.playerCards.add(table.draw());
+            table.dealerCards.add(table.draw());
+            table.playerCards.add(table.draw());
+            table.dealerCards.add(table.draw());
+            table.phase = BlackjackRules.PLAYER_TURN;
+
+            if (BlackjackRules.isBlackjack(table.playerCards)) {
+                table.resolve(BlackjackRules.isBlackjack(table.dealerCards)
+                    ? BlackjackRules.PUSH
+                    : BlackjackRules.PLAYER_BLACKJACK);
+            }
+            return table.toGameState();
+        }
+    }
+
+    @Override
+    public GameState hit(UUID sessionId) {
+        Table table = table(sessionId);
+        synchronized (table) {
+            table.checkPlayerTurn();
+            table.playerCards.add(table.draw());
+            int value = BlackjackRules.handValue(table.playerCards);
+            if (value > BlackjackRules.BLACKJACK) {
+                table.resolve(BlackjackRules.DEALER_WINS);
+            } else if (value == BlackjackRules.BLACKJACK) {
+                // nothing left to decide at 21
+                table.playDealer();
+            }
+            return table.toGameState();
+        }
+    }
+
+    @Override
+    public GameState stand(UUID sessionId) {
+        Table table = table(sessionId);
+        synchronized (table) {
+            table.checkPlayerTurn();
+            table.playDealer();
+            return table.toGameState();
+        }
+    }
+
+    @Override
+    public GameState resumeSession(UUID sessionId) {
+        Table table = table(sessionId);
+        synchronized (table) {
+            return table.toGameState();
+        }
+    }
+
+    @Override
+    public void finishGame(UUID sessionId) {
+        tables.remove(sessionId);
+    }
+
+    private Table table(UUID sessionId) {
+        Table table = tables.get(sessionId);
+        if (table == null) {
+            throw new IllegalArgumentException("No such session: " + sessionId);
+        }
+        return table;
+    }
+
+    private static List<String> serverNames(List<Card> cards) {
+        List<String> names = new ArrayList<>(cards.size());
+        for (Card card : cards) {
+            names.add(card.getServerName());
+        }
+        return names;
+    }
+
+    private static class Table
+    {
+        final UUID sessionId;
+        final Shoe shoe;
+        final List<Card> playerCards = new ArrayList<>();
+        final List<Card> dealerCards = new ArrayList<>();
+        String phase = BlackjackRules.BETTING;
+        String outcome;
+        int balance;
+        int currentBet = BlackjackRules.DEFAULT_BET;
+        boolean reshuffled;
+        LocalDateTime lastAccess = LocalDateTime.now();
+
+        Table(UUID sessionId, Shoe shoe)
+        {
+            this.sessionId = sessionId;
+            this.shoe = shoe;
+        }
+
+        Card draw() {
+            if (shoe.remaining() == 0) {
+                // the cards on the table stay out of the new deck
+                List<Card> inPlay = new ArrayList<>(playerCards);
+                inPlay.addAll(dealerCards);
+                shoe.shuffle(inPlay);
+                reshuffled = true;
+            }
+            return shoe.draw();
+        }
+
+        void checkPlayerTurn() {
+            if (!BlackjackRules.PLAYER_TURN.equals(phase)) {
+                throw new IllegalStateException("Not the player's turn in phase " + phase);
+            }
+        }
+
+        void playDealer() {
+            // a dealer blackjack beats any player hand that isn't one, even a 21 of three or more cards
+            // (a player blackjack was settled when the cards were dealt)
+            if (BlackjackRules.isBlackjack(dealerCards)) {
+                resolve(BlackjackRules.DEALER_WINS);
+                return;
+            }
+            while (BlackjackRules.handValue(dealerCards) < BlackjackRules.DEALER_STANDS_ON) {
+                dealerCards.add(draw());
+            }
+            int player = BlackjackRules.handValue(playerCards);
+            int dealer = BlackjackRules.handValue(dealerCards);
+            if (dealer > BlackjackRules.BLACKJACK || player > dealer) {
+                resolve(BlackjackRules.PLAYER_WINS);
+            } else if (player < dealer) {
+                resolve(BlackjackRules.DEALER_WINS);
+            } else {
+                resolve(BlackjackRules.PUSH);
+            }
+        }
+
+        void resolve(String outcome) {
+            this.outcome = outcome;
+            this.phase = BlackjackRules.RESOLVED;
+            this.balance += BlackjackRules.payout(outcome, currentBet);
+        }
+
+        GameState toGameState() {
+            lastAccess = LocalDateTime.now();
+            boolean playerTurn = BlackjackRules.PLAYER_TURN.equals(phase);
+            GameState state = new GameState();
+            state.sessionId = sessionId;
+            state.playerCards = serverNames(playerCards);
+            state.playerValue = BlackjackRules.handValue(playerCards);
+            state.dealerCards = serverNames(dealerCards);
+            if (playerTurn) {
+                // the hole card stays face down until the player is done
+                state.dealerCards.set(1, Card.HIDDEN.getServerName());
+                state.dealerValue = null;
+            } else {
+                state.dealerValue = BlackjackRules.handValue(dealerCards);
+            }
+            state.phase = phase;
+            state.outcome = outcome;
+            state.balance = balance;
+            state.currentBet = currentBet;
+            state.canHit = playerTurn;
+            state.canStand = playerTurn;
+            state.gameOver = BlackjackRules.RESOLVED.equals(phase);
+            state.cardsRemaining = shoe.remaining();
+            state.reshuffled = reshuffled;
+            return state;
+        }
+    }
+}
@@ -0,0 +1,380 @@
+package client;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Estimates the long-run return of a StrategyTable by playing simulated hands
+ * under the server's rules (see BlackjackRules) on all cores.
+ *
+ * The hands are cut into fixed-size chunks. Each chunk starts a fresh deck and gets its
+ * own random generator derived from the seed and the chunk number, and results are
+ * summed as exact integers, so the same seed gives the same answer no matter how many
+ * threads run it.
+ */
+public class MonteCarloSimulator
+{
+    public static final int CHUNK_HANDS = 1 << 16;
+
+    private final StrategyTable table;
+    private final CountingSystem system;
+    // counting tag by card value, ace as 1
+    private final int[] tags = new int[11];
+
+    public MonteCarloSimulator(StrategyTable table, CountingSystem system)
+    {
+        this.table = table;
+        this.system = system;
+        for (Card card : Card.newDeck()) {
+            tags[value(card)] = system.tag(card);
+        }
+    }
+
+    public Result run(long hands, long seed) {
+        return run(hands, seed, ForkJoinPool.commonPool());
+    }
+
+    public Result run(long hands, long seed, int threads) {
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            return run(hands, seed, pool);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Plays sessions of up to handsPerSession hands, each from a fresh shuffle, ending a
+     * session early once it has lost stopLoss or more (0 for no limit).
+     *
+     * Session i always starts from the same shuffle for a given seed, whatever the
+     * strategy, so strategies run with the same seed are compared on the same cards for
+     * as long as their play allows (common random numbers).
+     */
+    public Result runSessions(long sessions, int handsPerSession, int stopLoss, long seed) {
+        if (handsPerSession < 1 || stopLoss < 0) {
+            throw new IllegalArgumentException("handsPerSession must be positive and stopLoss not negative");
+        }
+        long start = System.nanoTime();
+        Result result = ForkJoinPool.commonPool().invoke(new Sessions(sessions, handsPerSession, stopLoss, seed, 0, sessions));
+        result.elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        return result;
+    }
+
+    private Result run(long hands, long seed, ForkJoinPool pool) {
+        if (hands < 0) {
+            throw new IllegalArgumentException("hands must not be negative: " + hands);
+        }
+        long chunks = (hands + CHUNK_HANDS - 1) / CHUNK_HANDS;
+        long start = System.nanoTime();
+        Result result = pool.invoke(new Chunks(hands, seed, 0, chunks));
+        result.elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        return result;
+    }
+
+    private class Chunks extends RecursiveTask<Result>
+    {
+        private static final long serialVersionUID = 1L;
+
+        private final long hands;
+        private final long seed;
+        private final long from;
+        private final long to;
+
+        Chunks(long hands, long seed, long from, long to)
+        {
+            this.hands = hands;
+            this.seed = seed;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Result compute() {
+            // no hands at all is a single empty chunk
+            if (to - from <= 1) {
+                long count = Math.max(0, Math.min(CHUNK_HANDS, hands - from * CHUNK_HANDS));
+                Result result = new Result();
+                new Table(new SplittableRandom(mix(seed + from * 0x9E3779B97F4A7C15L))).play(count, result);
+                return result;
+            }
+            long mid = (from + to) >>> 1;
+            Chunks left = new Chunks(hands, seed, from, mid);
+            left.fork();
+            Result right = new Chunks(hands, seed, mid, to).compute();
+            return left.join().add(right);
+        }
+    }
+
+    private class Sessions extends RecursiveTask<Result>
+    {
+        private static final long serialVersionUID = 1L;
+
+        private final long sessions;
+        private final int handsPerSession;
+        private final int stopLoss;
+        private final long seed;
+        private final long from;
+        private final long to;
+
+        Sessions(long sessions, int handsPerSession, int stopLoss, long seed, long from, long to)
+        {
+            this.sessions = sessions;
+            this.handsPerSession = handsPerSession;
+            this.stopLoss = stopLoss;
+            this.seed = seed;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Result compute() {
+            // split until a task has about a chunk's worth of hands
+            if ((to - from) * handsPerSession <= CHUNK_HANDS || to - from == 1) {
+                Result result = new Result();
+                for (long i = from; i < to; i++) {
+                    new Table(new SplittableRandom(mix(seed + i * 0x9E3779B97F4A7C15L))).playSession(handsPerSession, stopLoss, result);
+                }
+                return result;
+            }
+            long mid = (from + to) >>> 1;
+            Sessions left = new Sessions(sessions, handsPerSession, stopLoss, seed, from, mid);
+            left.fork();
+            Result right = new Sessions(sessions, handsPerSession, stopLoss, seed, mid, to).compute();
+            return left.join().add(right);
+        }
+    }
+
+    /**
+     * One simulated player at one table, counting the cards as they are shown.
+     */
+    private class Table
+    {
+        private final SplittableRandom random;
+        private final byte[] deck = new byte[BlackjackRules.DECK_SIZE];
+        private int next;
+        private int runningCount;
+        // bumped by every shuffle, to tell which deck a card came from
+        private int shuffles;
+
+        Table(SplittableRandom random)
+        {
+            this.random = random;
+            Card[] cards = Card.newDeck();
+            for (int i = 0; i < deck.length; i++) {
+                deck[i] = (byte) value(cards[i]);
+            }
+            shuffle();
+        }
+
+        void play(long hands, Result result) {
+            for (long h = 0; h < hands; h++) {
+                if (deck.length - next < BlackjackRules.RESHUFFLE_BELOW) {
+                    shuffle();
+                }
+                int bet = table.bet(trueCount());
+                int net = playHand(bet);
+                result.hands++;
+                result.totalBet += bet;
+                result.net += net;
+                result.netSquared += (long) net * net;
+            }
+        }
+
+        void playSession(int hands, int stopLoss, Result result) {
+            long net = 0;
+            for (int h = 0; h < hands && (stopLoss == 0 || net > -stopLoss); h++) {
+                if (deck.length - next < BlackjackRules.RESHUFFLE_BELOW) {
+                    shuffle();
+                }
+                int bet = table.bet(trueCount());
+                int handNet = playHand(bet);
+                net += handNet;
+                result.hands++;
+                result.totalBet += bet;
+                result.net += handNet;
+                result.netSquared += (long) handNet * handNet;
+            }
+            result.sessions++;
+            result.sessionNetSquared += net * net;
+        }
+
+        // returns the change in balance
+        private int playHand(int bet) {
+            int p1 = seen(draw());
+            int up = seen(draw());
+            int p2 = seen(draw());
+            int hole = draw();
+            // if the deck runs out mid-hand it is reshuffled, and the hole card belongs to the old count
+            int holeDeck = shuffles;
+
+            int hard = p1 + p2;
+            boolean ace = p1 == 1 || p2 == 1;
+            int dealerUp = up == 1 ? 11 : up;
+            if (BlackjackRules.bestTotal(hard, ace) == BlackjackRules.BLACKJACK) {
+                seenFrom(hole, holeDeck);
+                boolean dealerBlackjack = BlackjackRules.bestTotal(up + hole, up == 1 || hole == 1) == BlackjackRules.BLACKJACK;
+                return dealerBlackjack ? 0 : bet * 3 / 2;
+            }
+
+            int total = BlackjackRules.bestTotal(hard, ace);
+            while (total < BlackjackRules.BLACKJACK
+                && table.shouldHit(total, total != hard, dealerUp, trueCount())) {
+                int card = seen(draw());
+                hard += card;
+                ace |= card == 1;
+                total = BlackjackRules.bestTotal(hard, ace);
+            }
+            seenFrom(hole, holeDeck);
+            if (total > BlackjackRules.BLACKJACK) {
+                return -bet;
+            }
+
+            int dealerHard = up + hole;
+            boolean dealerAce = up == 1 || hole == 1;
+            int dealer = BlackjackRules.bestTotal(dealerHard, dealerAce);
+            if (dealer == BlackjackRules.BLACKJACK) {
+                // a dealer blackjack beats the player's 21 of three or more cards too
+                return -bet;
+            }
+            while (dealer < BlackjackRules.DEALER_STANDS_ON) {
+                int card = seen(draw());
+                dealerHard += card;
+                dealerAce |= card == 1;
+                dealer = BlackjackRules.bestTotal(dealerHard, dealerAce);
+            }
+            if (dealer > BlackjackRules.BLACKJACK || total > dealer) {
+                return bet;
+            }
+            return total < dealer ? -bet : 0;
+        }
+
+        private int draw() {
+            if (next == deck.length) {
+                shuffle();
+            }
+            return deck[next++];
+        }
+
+        private int seen(int card) {
+            runningCount += tags[card];
+            return card;
+        }
+
+        // counts a card only if it came from the current deck
+        private void seenFrom(int card, int deckNumber) {
+            if (deckNumber == shuffles) {
+                seen(card);
+            }
+        }
+
+        private double trueCount() {
+            return runningCount * (double) BlackjackRules.DECK_SIZE / (deck.length - next);
+        }
+
+        private void shuffle() {
+            for (int i = deck.length - 1; i > 0; i--) {
+                int j = random.nextInt(i + 1);
+                byte tmp = deck[i];
+                deck[i] = deck[j];
+                deck[j] = tmp;
+            }
+            next = 0;
+            shuffles++;
+            runningCount = system.initialCount(1);
+        }
+    }
+
+    // value with an ace as 1
+    private static int value(Card card) {
+        return card.isAce() ? 1 : card.getValue();
+    }
+
+    // SplitMix64 finalizer, so nearby chunk numbers get unrelated seeds
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    public static class Result
+    {
+        public long hands;
+        public long totalBet;
+        // sum of the change in balance over all hands, and of its square
+        public long net;
+        public long netSquared;
+        // only set by runSessions: sessions played and the sum of each session's net squared
+        public long sessions;
+        public long sessionNetSquared;
+        public long elapsedMillis;
+
+        Result add(Result other) {
+            hands += other.hands;
+            totalBet += other.totalBet;
+            net += other.net;
+            netSquared += other.netSquared;
+            sessions += other.sessions;
+            sessionNetSquared += other.sessionNetSquared;
+            return this;
+        }
+
+        // average change in balance per session
+        public double meanPerSession() {
+            return (double) net / sessions;
+        }
+
+        public double sessionStandardError() {
+            double mean = meanPerSession();
+            return Math.sqrt(((double) sessionNetSquared / sessions - mean * mean) / sessions);
+        }
+
+        // average change in balance per hand
+        public double mean() {
+            return (double) net / hands;
+        }
+
+        public double variance() {
+            double mean = mean();
+            return (double) netSquared / hands - mean * mean;
+        }
+
+        public double standardError() {
+            return Math.sqrt(variance() / hands);
+        }
+
+        // 95% confidence interval for the mean
+        public double low() {
+            return mean() - 1.96 * standardError();
+        }
+
+        public double high() {
+            return mean() + 1.96 * standardError();
+        }
+
+        // net as a fraction of everything wagered
+        public double returnOnBets() {
+            return (double) net / totalBet;
+        }
+
+        @Override
+        public String toString()
+        {
+            return "hands: " + hands + "\n" +
+                String.format("mean per hand: %.5f (95%% CI %.5f to %.5f)", mean(), low(), high()) + "\n" +
+                String.format("return on bets: %.4f%%", 100 * returnOnBets()) + "\n" +
+                String.format("variance per hand: %.2f", variance()) + "\n" +
+                "elapsed: " + elapsedMillis + " ms\n";
+        }
+    }
+
+    // usage: MonteCarloSimulator [hands] [seed] [threads]
+    public static void main(String[] args) {
+        long hands = args.length > 0 ? Long.parseLong(args[0]) : 10_000_000L;
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : 1L;
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        MonteCarloSimulator simulator = new MonteCarloSimulator(StrategyTable.basic(), CountingSystem.HI_LO);
+        System.out.println(simulator.run(hands, seed, threads));
+    }
+}
@@ -0,0 +1,127 @@
+package client;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import com.google.gson.reflect.TypeToken;
+
+/**
+ * Plays a recorded Transcript back to client code in place of the server.
+ *
+ * Each call is answered with the next recorded response for the same action and
+ * session, so code that makes the same calls as when it was recorded (a strategy
+ * with the same settings, say) sees exactly the same responses, with no server.
+ * With realTime on, the recording's timing is kept as well: each response comes back
+ * no sooner than it did in the recording, counting from the first call, so both the
+ * calls' latency and the gaps between them are reproduced. Otherwise responses come
+ * back as fast as they can be decoded.
+ */
+public class ReplayApi implements BlackjackApi
+{
+    private static final Type SESSION_LIST = new TypeToken<List<SessionSummary>>() {}.getType();
+
+    private final Map<String, ArrayDeque<Transcript.Exchange>> queues = new HashMap<>();
+    private final boolean realTime;
+    // when the first recorded call started, and the replay's matching moment, once it begins
+    private final long firstStartNanos;
+    private long replayStartNanos = Long.MIN_VALUE;
+
+    public ReplayApi(List<Transcript.Exchange> exchanges, boolean realTime)
+    {
+        this.realTime = realTime;
+        long first = Long.MAX_VALUE;
+        for (Transcript.Exchange exchange : exchanges) {
+            queues.computeIfAbsent(key(exchange.action, exchange.sessionId()), k -> new ArrayDeque<>()).add(exchange);
+            first = Math.min(first, exchange.startNanos);
+        }
+        this.firstStartNanos = exchanges.isEmpty() ? 0 : first;
+    }
+
+    public static ReplayApi load(Path file, boolean realTime) throws IOException {
+        return new ReplayApi(Transcript.read(file), realTime);
+    }
+
+    public List<SessionSummary> listSessions() throws Exception {
+        byte[] body = next(Action.LIST, null);
+        return JsonUtil.GSON.fromJson(new String(body, StandardCharsets.UTF_8), SESSION_LIST);
+    }
+
+    public GameState startGame() throws Exception {
+        return GameStateDecoder.decode(next(Action.START, null));
+    }
+
+    public GameState newGame(UUID sessionId) throws Exception {
+        return GameStateDecoder.decode(next(Action.RESET, sessionId));
+    }
+
+    public GameState placeBet(UUID sessionId, int amount) throws Exception {
+        return GameStateDecoder.decode(next(Action.BET, sessionId));
+    }
+
+    public GameState hit(UUID sessionId) throws Exception {
+        return GameStateDecoder.decode(next(Action.HIT, sessionId));
+    }
+
+    public GameState stand(UUID sessionId) throws Exception {
+        return GameStateDecoder.decode(next(Action.STAND, sessionId));
+    }
+
+    public GameState resumeSession(UUID sessionId) throws Exception {
+        return GameStateDecoder.decode(next(Action.RESUME, sessionId));
+    }
+
+    public void finishGame(UUID sessionId) throws Exception {
+        next(Action.FINISH, sessionId);
+    }
+
+    // calls left unanswered, to check that a replay used the whole recording
+    public synchronized int remaining() {
+        int remaining = 0;
+        for (ArrayDeque<Transcript.Exchange> queue : queues.values()) {
+            remaining += queue.size();
+        }
+        return remaining;
+    }
+
+    private byte[] next(Action action, UUID sessionId) throws Exception {
+        Transcript.Exchange exchange;
+        long replayStart;
+        synchronized (this) {
+            ArrayDeque<Transcript.Exchange> queue = queues.get(key(action, sessionId));
+            exchange = queue == null ? null : queue.poll();
+            if (replayStartNanos == Long.MIN_VALUE) {
+                replayStartNanos = System.nanoTime();
+            }
+            replayStart = replayStartNanos;
+        }
+        if (exchange == null) {
+            throw new IllegalStateException("No recorded " + action + " left" + (sessionId == null ? "" : " for session " + sessionId));
+        }
+        if (realTime) {
+            long answeredAt = replayStart + exchange.startNanos - firstStartNanos + exchange.durationNanos;
+            long wait = answeredAt - System.nanoTime();
+            if (wait > 0) {
+                TimeUnit.NANOSECONDS.sleep(wait);
+            }
+        }
+        if (exchange.status == 0) {
+            throw new IOException(action + " failed when recorded");
+        }
+        if (exchange.status / 100 != 2) {
+            throw new ServerException(action, exchange.status, new String(exchange.body, StandardCharsets.UTF_8));
+        }
+        return exchange.body;
+    }
+
+    private static String key(Action action, UUID sessionId) {
+        return sessionId == null ? action.name() : action + "/" + sessionId;
+    }
+}
@@ -0,0 +1,42 @@
+package client;
+
+/**
+ * The server answered with a status other than 2xx.
+ */
+public class ServerException extends Exception
+{
+    private static final long serialVersionUID = 1L;
+
+    private final Action action;
+    private final int status;
+    private final String body;
+
+    public ServerException(Action action, int status, String body)
+    {
+        super(action + " failed with status " + status + (body.isEmpty() ? "" : ": " + body));
+        this.action = action;
+        this.status = status;
+        this.body = body;
+    }
+
+    public Action getAction() {
+        return action;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public String getBody() {
+        return body;
+    }
+
+    // the server is struggling rather than rejecting the request itself
+    public boolean isOverload() {
+        return isOverload(status);
+    }
+
+    public static boolean isOverload(int status) {
+        return status >= 500 || status == 429;
+    }
+}
@@ -0,0 +1,182 @@
+package client;
+
+import java.awt.BorderLayout;
+import java.awt.Component;
+import java.awt.Dialog;
+import java.awt.FlowLayout;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.time.format.DateTimeFormatter;
+import java.util.UUID;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+
+import javax.swing.DefaultListCellRenderer;
+import javax.swing.JComboBox;
+import javax.swing.JDialog;
+import javax.swing.JLabel;
+import javax.swing.JList;
+import javax.swing.JPanel;
+import javax.swing.JScrollPane;
+import javax.swing.JTextField;
+import javax.swing.ListSelectionModel;
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+
+/**
+ * Lists the user's sessions and resumes one on double-click.
+ *
+ * The list is refreshed in the background while the window is open and each refresh
+ * is merged into the cached rows (see SessionListModel), so a long list doesn't jump
+ * around or get rebuilt. Keep one browser and show() it again to reuse the cache.
+ */
+public class SessionBrowser
+{
+    private static final int REFRESH_MILLIS = 5000;
+    private static final DateTimeFormatter TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final String ALL_PHASES = "All phases";
+
+    private final ClientConnecter clientConnecter;
+    private final SessionListModel model = new SessionListModel();
+    private final JDialog dialog;
+    private final JLabel countLabel = new JLabel(" ");
+    private final JComboBox<String> phaseBox = new JComboBox<>(new String[] {
+        ALL_PHASES, BlackjackRules.BETTING, BlackjackRules.PLAYER_TURN, BlackjackRules.RESOLVED });
+    private final JTextField minBalanceField = new JTextField(6);
+    private final Timer refreshTimer;
+    private boolean refreshing;
+    private volatile SessionStateCache stateCache;
+
+    /**
+     * @param onResume called on the EDT with the session the user picked
+     */
+    public SessionBrowser(Component parent, ClientConnecter clientConnecter, Consumer<UUID> onResume)
+    {
+        this.clientConnecter = clientConnecter;
+
+        dialog = new JDialog(SwingUtilities.getWindowAncestor(parent), "Sessions", Dialog.ModalityType.MODELESS);
+        dialog.setDefaultCloseOperation(JDialog.HIDE_ON_CLOSE);
+        dialog.setSize(600, 400);
+        dialog.setLocationRelativeTo(parent);
+
+        JList<SessionSummary> list = new JList<>(model);
+        // a fixed row height means JList never has to measure rows that are off screen
+        list.setFixedCellHeight(20);
+        list.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        list.setCellRenderer(new DefaultListCellRenderer() {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            public Component getListCellRendererComponent(JList<?> list, Object value, int index,
+                                                          boolean isSelected, boolean cellHasFocus) {
+                return super.getListCellRendererComponent(list, describe((SessionSummary) value), index, isSelected, cellHasFocus);
+            }
+        });
+        list.addMouseListener(new MouseAdapter() {
+            public void mouseClicked(MouseEvent e) {
+                if (e.getClickCount() == 2) { // double click to resume
+                    SessionSummary selected = list.getSelectedValue();
+                    if (selected != null) {
+                        dialog.setVisible(false);
+                        onResume.accept(selected.sessionId);
+                    }
+                }
+            }
+        });
+
+        JComboBox<SessionListModel.Sort> sortBox = new JComboBox<>(SessionListModel.Sort.values());
+        sortBox.addActionListener(e -> model.setSort((SessionListModel.Sort) sortBox.getSelectedItem()));
+        phaseBox.addActionListener(e -> applyFilter());
+        minBalanceField.addActionListener(e -> applyFilter());
+
+        JPanel controls = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        controls.add(new JLabel("Sort:"));
+        controls.add(sortBox);
+        controls.add(phaseBox);
+        controls.add(new JLabel("Min balance:"));
+        controls.add(minBalanceField);
+        controls.add(countLabel);
+
+        dialog.add(controls, BorderLayout.NORTH);
+        dialog.add(new JScrollPane(list), BorderLayout.CENTER);
+
+        refreshTimer = new Timer(REFRESH_MILLIS, e -> refresh());
+        dialog.addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosing(WindowEvent e) {
+                refreshTimer.stop();
+            }
+        });
+    }
+
+    public void show() {
+        refresh();
+        refreshTimer.start();
+        dialog.setVisible(true);
+    }
+
+    public SessionListModel getModel() {
+        return model;
+    }
+
+    /**
+     * Every refresh confirms the cache's states (see SessionStateCache.confirm).
+     */
+    public void setStateCache(SessionStateCache stateCache) {
+        this.stateCache = stateCache;
+    }
+
+    // fetches in the background and merges on the EDT; one refresh at a time
+    private void refresh() {
+        if (refreshing) {
+            return;
+        }
+        if (!dialog.isVisible() && refreshTimer.isRunning()) {
+            refreshTimer.stop();
+            return;
+        }
+        refreshing = true;
+        SessionStateCache cache = stateCache;
+        long mark = cache == null ? 0 : cache.mark();
+        clientConnecter.listSessionsAsync().whenComplete((sessions, error) -> SwingUtilities.invokeLater(() -> {
+            refreshing = false;
+            if (error == null && cache != null) {
+                cache.confirm(sessions, mark);
+            }
+            if (error != null) {
+                Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+                countLabel.setText("Refresh failed: " + cause.getMessage());
+                return;
+            }
+            model.merge(sessions);
+            updateCount();
+        }));
+    }
+
+    private void applyFilter() {
+        String phase = (String) phaseBox.getSelectedItem();
+        Integer minBalance = null;
+        String text = minBalanceField.getText().trim();
+        if (!text.isEmpty()) {
+            try {
+                minBalance = Integer.parseInt(text);
+            } catch (NumberFormatException e) {
+                minBalanceField.setText("");
+            }
+        }
+        model.setFilter(ALL_PHASES.equals(phase) ? null : phase, minBalance);
+        updateCount();
+    }
+
+    private void updateCount() {
+        countLabel.setText(model.getSize() + " of " + model.getCachedCount() + " sessions");
+    }
+
+    private static String describe(SessionSummary session) {
+        return String.format("%s   balance %d   %s   %s", session.sessionId, session.balance,
+            session.outcome != null ? session.outcome : session.phase,
+            session.lastAccess == null ? "" : TIME.format(session.lastAccess));
+    }
+}
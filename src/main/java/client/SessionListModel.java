@@ -0,0 +1,179 @@
+package client;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import javax.swing.AbstractListModel;
+
+/**
+ * Sessions for a JList, kept in a local cache keyed by session id.
+ *
+ * merge() takes a fresh listSessions() result and only touches the rows whose
+ * lastAccess, balance or phase changed. Sorting and filtering work on the cache
+ * and never go back to the server. The model hands out rows on request, so with a
+ * fixed cell height a JList only ever looks at the rows on screen, however many
+ * sessions there are. Use from the EDT.
+ */
+public class SessionListModel extends AbstractListModel<SessionSummary>
+{
+    private static final long serialVersionUID = 1L;
+
+    public enum Sort
+    {
+        LAST_ACCESS(Comparator.comparing((SessionSummary s) -> s.lastAccess, Comparator.nullsLast(Comparator.reverseOrder()))),
+        BALANCE(Comparator.comparingInt((SessionSummary s) -> s.balance).reversed()),
+        BALANCE_ASCENDING(Comparator.comparingInt((SessionSummary s) -> s.balance));
+
+        final Comparator<SessionSummary> comparator;
+
+        Sort(Comparator<SessionSummary> comparator)
+        {
+            this.comparator = comparator.thenComparing(s -> s.sessionId);
+        }
+    }
+
+    private final Map<UUID, SessionSummary> cache = new HashMap<>();
+    // the cached sessions that pass the filter, in sort order
+    private final List<SessionSummary> rows = new ArrayList<>();
+    private Sort sort = Sort.LAST_ACCESS;
+    // null for every phase
+    private String phase;
+    private Integer minBalance;
+
+    @Override
+    public int getSize() {
+        return rows.size();
+    }
+
+    @Override
+    public SessionSummary getElementAt(int index) {
+        return rows.get(index);
+    }
+
+    public int getCachedCount() {
+        return cache.size();
+    }
+
+    public SessionSummary get(UUID sessionId) {
+        return cache.get(sessionId);
+    }
+
+    /**
+     * Brings the cache up to date with a full list from the server.
+     * Returns the number of sessions added, changed or removed.
+     */
+    public int merge(List<SessionSummary> sessions) {
+        Map<UUID, SessionSummary> gone = new HashMap<>(cache);
+        List<SessionSummary> changed = new ArrayList<>();
+        boolean reorder = false;
+        int count = 0;
+        for (SessionSummary fresh : sessions) {
+            SessionSummary old = gone.remove(fresh.sessionId);
+            if (old != null && !differs(old, fresh)) {
+                continue;
+            }
+            count++;
+            cache.put(fresh.sessionId, fresh);
+            if (old == null || matches(old) != matches(fresh) || sort.comparator.compare(old, fresh) != 0) {
+                reorder = true;
+            } else {
+                changed.add(fresh);
+            }
+        }
+        count += gone.size();
+        for (UUID sessionId : gone.keySet()) {
+            cache.remove(sessionId);
+            reorder |= matches(gone.get(sessionId));
+        }
+
+        if (reorder) {
+            rebuild();
+        } else {
+            // rows stay where they are; swap in the new values one by one
+            for (SessionSummary fresh : changed) {
+                int index = indexOf(fresh);
+                if (index >= 0) {
+                    rows.set(index, fresh);
+                    fireContentsChanged(this, index, index);
+                }
+            }
+        }
+        return count;
+    }
+
+    public void setSort(Sort sort) {
+        if (sort != this.sort) {
+            this.sort = sort;
+            rebuild();
+        }
+    }
+
+    public Sort getSort() {
+        return sort;
+    }
+
+    /**
+     * Shows only sessions in this phase (null for all) with at least this balance (null for any).
+     */
+    public void setFilter(String phase, Integer minBalance) {
+        this.phase = phase;
+        this.minBalance = minBalance;
+        rebuild();
+    }
+
+    private void rebuild() {
+        int oldSize = rows.size();
+        rows.clear();
+        for (SessionSummary session : cache.values()) {
+            if (matches(session)) {
+                rows.add(session);
+            }
+        }
+        rows.sort(sort.comparator);
+        int newSize = rows.size();
+        if (newSize < oldSize) {
+            fireIntervalRemoved(this, newSize, oldSize - 1);
+        } else if (newSize > oldSize) {
+            fireIntervalAdded(this, oldSize, newSize - 1);
+        }
+        if (Math.min(oldSize, newSize) > 0) {
+            fireContentsChanged(this, 0, Math.min(oldSize, newSize) - 1);
+        }
+    }
+
+    // rows are sorted, so binary search by the sort order
+    private int indexOf(SessionSummary session) {
+        int low = 0;
+        int high = rows.size() - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int cmp = sort.comparator.compare(rows.get(mid), session);
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    private boolean matches(SessionSummary session) {
+        return (phase == null || phase.equals(session.phase))
+            && (minBalance == null || session.balance >= minBalance);
+    }
+
+    private static boolean differs(SessionSummary a, SessionSummary b) {
+        return a.balance != b.balance || a.currentBet != b.currentBet
+            || !same(a.phase, b.phase) || !same(a.outcome, b.outcome) || !same(a.lastAccess, b.lastAccess);
+    }
+
+    private static boolean same(Object a, Object b) {
+        return a == null ? b == null : a.equals(b);
+    }
+}
@@ -0,0 +1,196 @@
+package client;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.google.gson.reflect.TypeToken;
+
+/**
+ * The last GameState seen for each session, so reconnecting doesn't need a
+ * resumeSession() call per session.
+ *
+ * Add it as a listener to a ClientConnecter and it keeps itself up to date from every
+ * response. A response doesn't say when the server last touched the session, so a
+ * new state is unconfirmed until a session list taken after it (see listSessions,
+ * or mark and confirm) supplies the session's lastAccess. From then on the state is
+ * current for as long as the server's lastAccess stays the same; any call made on
+ * the session since, by us or anyone else, changes it.
+ *
+ * The cache can be saved to disk and loaded again, so a restarted bot fleet can pick
+ * its sessions back up from one listSessions() call.
+ */
+public class SessionStateCache implements GameStateListener
+{
+    private static final Type ENTRY_LIST = new TypeToken<List<Entry>>() {}.getType();
+
+    private final ConcurrentHashMap<UUID, Entry> entries = new ConcurrentHashMap<>();
+    // counts responses, so a session list can tell which came before it was sent
+    private final AtomicLong responses = new AtomicLong();
+
+    @Override
+    public void onGameState(Action action, GameState state) {
+        if (state != null && state.sessionId != null) {
+            entries.put(state.sessionId, new Entry(state, null, responses.incrementAndGet()));
+        }
+    }
+
+    // a finished session can't be resumed, so its state is no use
+    @Override
+    public void onFinished(UUID sessionId) {
+        entries.remove(sessionId);
+    }
+
+    /**
+     * Call just before asking for a session list, and pass the result to confirm()
+     * with the list.
+     */
+    public long mark() {
+        return responses.get();
+    }
+
+    /**
+     * Takes the lastAccess of each unconfirmed state from a session list sent after
+     * mark() returned the given value. States that arrived after that are left
+     * unconfirmed, since the list may have been taken before the call that made them.
+     */
+    public void confirm(List<SessionSummary> sessions, long mark) {
+        for (SessionSummary summary : sessions) {
+            Entry entry = entries.get(summary.sessionId);
+            if (entry != null && entry.lastAccess == null && entry.sequence <= mark && summary.lastAccess != null) {
+                entries.replace(summary.sessionId, entry, new Entry(entry.state, summary.lastAccess, entry.sequence));
+            }
+        }
+    }
+
+    /**
+     * The api's session list, used to confirm the cached states.
+     */
+    public List<SessionSummary> listSessions(BlackjackApi api) throws Exception {
+        long mark = mark();
+        List<SessionSummary> sessions = api.listSessions();
+        confirm(sessions, mark);
+        return sessions;
+    }
+
+    public GameState get(UUID sessionId) {
+        Entry entry = entries.get(sessionId);
+        return entry == null ? null : entry.state;
+    }
+
+    public void remove(UUID sessionId) {
+        entries.remove(sessionId);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * The cached state if it is confirmed and the summary shows nothing has happened
+     * to the session since, otherwise null.
+     */
+    public GameState getIfCurrent(SessionSummary summary) {
+        Entry entry = entries.get(summary.sessionId);
+        if (entry != null && entry.lastAccess != null && entry.lastAccess.equals(summary.lastAccess)) {
+            return entry.state;
+        }
+        return null;
+    }
+
+    /**
+     * The session's state, from the cache if it is current, else from the server.
+     */
+    public GameState resume(BlackjackApi api, SessionSummary summary) throws Exception {
+        GameState state = getIfCurrent(summary);
+        if (state == null) {
+            state = api.resumeSession(summary.sessionId);
+            // the api may not have this cache as a listener
+            onGameState(Action.RESUME, state);
+        }
+        return state;
+    }
+
+    /**
+     * Lists the sessions and resumes every one, going to the server only for the ones
+     * whose cached state is missing or stale. Drops cached sessions that are no longer listed.
+     */
+    public Map<UUID, GameState> resumeAll(BlackjackApi api) throws Exception {
+        List<SessionSummary> sessions = listSessions(api);
+        Set<UUID> listed = new HashSet<>();
+        Map<UUID, GameState> states = new HashMap<>();
+        for (SessionSummary summary : sessions) {
+            listed.add(summary.sessionId);
+            states.put(summary.sessionId, resume(api, summary));
+        }
+        entries.keySet().retainAll(listed);
+        return states;
+    }
+
+    public void save(Path file) throws IOException {
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        // unconfirmed states can't be checked after a restart, so only confirmed ones are saved
+        List<Entry> confirmed = new ArrayList<>();
+        for (Entry entry : entries.values()) {
+            if (entry.lastAccess != null) {
+                confirmed.add(entry);
+            }
+        }
+        try (Writer out = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+            JsonUtil.GSON.toJson(confirmed, ENTRY_LIST, out);
+        }
+        // replace the old file in one step, so a crash never leaves half a cache
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Adds the saved states to the cache. A missing file is an empty cache.
+     */
+    public void load(Path file) throws IOException {
+        if (!Files.exists(file)) {
+            return;
+        }
+        List<Entry> saved;
+        try (Reader in = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            saved = JsonUtil.GSON.fromJson(in, ENTRY_LIST);
+        }
+        if (saved != null) {
+            for (Entry entry : saved) {
+                if (entry != null && entry.state != null && entry.state.sessionId != null && entry.lastAccess != null) {
+                    entries.putIfAbsent(entry.state.sessionId, entry);
+                }
+            }
+        }
+    }
+
+    private static class Entry
+    {
+        GameState state;
+        // the server's lastAccess from a session list taken after this state arrived
+        LocalDateTime lastAccess;
+        // which response this was; not saved, since saved entries are all confirmed
+        transient long sequence;
+
+        Entry(GameState state, LocalDateTime lastAccess, long sequence)
+        {
+            this.state = state;
+            this.lastAccess = lastAccess;
+            this.sequence = sequence;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package client;
+
+import java.util.Collection;
+import java.util.random.RandomGenerator;
+
+/**
+ * A single deck of cards that is dealt from the top and reshuffled when asked.
+ */
+public class Shoe
+{
+    private final Card[] cards = Card.newDeck();
+    private final RandomGenerator random;
+    private int next;
+
+    public Shoe(RandomGenerator random)
+    {
+        this.random = random;
+        shuffle();
+    }
+
+    public void shuffle() {
+        // Fisher-Yates
+        for (int i = cards.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            Card tmp = cards[i];
+            cards[i] = cards[j];
+            cards[j] = tmp;
+        }
+        next = 0;
+    }
+
+    /**
+     * Reshuffles all but the given cards, which are still in play: they are left out
+     * of the new deck, so they can't be dealt again until the next shuffle.
+     */
+    public void shuffle(Collection<Card> inPlay) {
+        int out = 0;
+        for (int i = 0; i < cards.length; i++) {
+            if (inPlay.contains(cards[i])) {
+                Card tmp = cards[out];
+                cards[out] = cards[i];
+                cards[i] = tmp;
+                out++;
+            }
+        }
+        // Fisher-Yates over the rest
+        for (int i = cards.length - 1; i > out; i--) {
+            int j = out + random.nextInt(i - out + 1);
+            Card tmp = cards[i];
+            cards[i] = cards[j];
+            cards[j] = tmp;
+        }
+        next = out;
+    }
+
+    public Card draw() {
+        return cards[next++];
+    }
+
+    public int remaining() {
+        return cards.length - next;
+    }
+}
@@ -0,0 +1,46 @@
+package client;
+
+import java.awt.FlowLayout;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import javax.swing.SwingUtilities;
+
+/**
+ * A one-line view of LiveStats, refreshed whenever the stats publish a snapshot.
+ * Snapshots arrive on the publisher thread and are shown on the EDT; if the EDT
+ * falls behind, only the newest is shown.
+ */
+public class StatsPanel extends JPanel
+{
+    private static final long serialVersionUID = 1L;
+
+    private final JLabel label = new JLabel("No hands played yet");
+    private final AtomicReference<LiveStats.Snapshot> latest = new AtomicReference<>();
+    private final Consumer<LiveStats.Snapshot> subscriber = this::update;
+
+    public StatsPanel(LiveStats stats)
+    {
+        super(new FlowLayout(FlowLayout.LEFT));
+        add(label);
+        stats.subscribe(subscriber);
+    }
+
+    private void update(LiveStats.Snapshot snapshot) {
+        if (latest.getAndSet(snapshot) == null) {
+            SwingUtilities.invokeLater(() -> {
+                LiveStats.Snapshot newest = latest.getAndSet(null);
+                if (newest.hands > 0) {
+                    String text = String.format("Hands %d   Win %.1f%%   Blackjack %.1f%%   Push %.1f%%   Loss %.1f%%   EV/hand %.2f   Net %d",
+                        newest.hands, 100 * newest.winRate(), 100 * newest.blackjackRate(), 100 * newest.pushRate(),
+                        100 * newest.lossRate(), newest.evPerHand(), newest.net);
+                    if (!text.equals(label.getText())) {
+                        label.setText(text);
+                    }
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package client;
+
+import java.util.UUID;
+
+/**
+ * Decides what a headless bot does at each step of a hand.
+ * Implementations are shared by every session in a run, so they must be thread-safe.
+ */
+public interface Strategy
+{
+    /**
+     * How much to bet on the next hand. Must be a multiple of 10.
+     */
+    int chooseBet(GameState state);
+
+    /**
+     * true to hit, false to stand.
+     */
+    boolean shouldHit(GameState state);
+
+    /**
+     * Called with every GameState the bot receives, including the final state
+     * of each hand, so strategies that count cards can see every card.
+     */
+    default void observe(GameState state) {
+    }
+
+    /**
+     * Called once the bot is done with a session, finished or not, so anything
+     * kept for it can be dropped.
+     */
+    default void finished(UUID sessionId) {
+    }
+
+    /**
+     * The simplest possible strategy: always bet the same amount and hit
+     * until the hand is worth at least standValue.
+     */
+    static Strategy hitBelow(int standValue, int bet) {
+        return new Strategy() {
+            public int chooseBet(GameState state) {
+                return bet;
+            }
+
+            public boolean shouldHit(GameState state) {
+                return state.playerValue < standValue;
+            }
+        };
+    }
+}
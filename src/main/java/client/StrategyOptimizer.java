@@ -0,0 +1,241 @@
+package client;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+/**
+ * Searches for the best bet ramp, deviation indices and stop-loss by simulation.
+ *
+ * Candidates are scored on the average change in balance per session of
+ * handsPerSession hands (a stop-loss can end a session early). Evaluation goes in
+ * batches: in each batch every remaining candidate plays the same sessions on the
+ * same seed using every core (see MonteCarloSimulator.runSessions), so the luck of
+ * the deal mostly cancels out between candidates. After each batch, any candidate
+ * whose paired difference from the leader is clearly negative is dropped, so most
+ * of the time goes to the close contenders.
+ */
+public class StrategyOptimizer
+{
+    // batches needed before anything is dropped, and z for dropping
+    private static final int MIN_BATCHES = 3;
+    private static final double ELIMINATE_Z = 2.5;
+
+    private final CountingSystem system;
+    private final int handsPerSession;
+    private final long sessionsPerBatch;
+    private final int maxBatches;
+
+    public StrategyOptimizer(CountingSystem system, int handsPerSession, long sessionsPerBatch, int maxBatches)
+    {
+        this.system = system;
+        this.handsPerSession = handsPerSession;
+        this.sessionsPerBatch = sessionsPerBatch;
+        this.maxBatches = maxBatches;
+    }
+
+    /**
+     * One set of parameters to try.
+     */
+    public static class Candidate
+    {
+        // bet units by true count, MIN_TRUE_COUNT to MAX_TRUE_COUNT
+        public int[] betRamp;
+        // index for each of StrategyTable's deviations, or null to play basic strategy without them
+        public int[] deviationIndexes;
+        // stop a session once it is down this many units; 0 for never
+        public int stopLossUnits;
+
+        public StrategyTable toTable() {
+            StrategyTable table = StrategyTable.basicWithoutDeviations();
+            if (deviationIndexes != null) {
+                table.applyDeviations(deviationIndexes);
+            }
+            table.setBetRamp(betRamp);
+            return table;
+        }
+
+        @Override
+        public String toString()
+        {
+            return "ramp " + Arrays.toString(betRamp) +
+                ", deviations " + (deviationIndexes == null ? "none" : Arrays.toString(deviationIndexes)) +
+                ", stop-loss " + (stopLossUnits == 0 ? "none" : stopLossUnits + " units");
+        }
+    }
+
+    /**
+     * How a candidate did: the batch averages and the pooled results.
+     */
+    public static class Evaluation
+    {
+        public final Candidate candidate;
+        public final MonteCarloSimulator.Result total = new MonteCarloSimulator.Result();
+        // average per session in each batch
+        public final List<Double> batchMeans = new ArrayList<>();
+        public boolean eliminated;
+
+        Evaluation(Candidate candidate)
+        {
+            this.candidate = candidate;
+        }
+
+        public double mean() {
+            return total.meanPerSession();
+        }
+
+        // 95% confidence interval for the mean per session
+        public double low() {
+            return mean() - 1.96 * total.sessionStandardError();
+        }
+
+        public double high() {
+            return mean() + 1.96 * total.sessionStandardError();
+        }
+
+        @Override
+        public String toString()
+        {
+            return candidate + "\n" +
+                String.format("  per session: %.3f (95%% CI %.3f to %.3f) over %d sessions, %d batches",
+                    mean(), low(), high(), total.sessions, batchMeans.size()) + "\n" +
+                String.format("  per hand: %.5f, return on bets: %.4f%%", total.mean(), 100 * total.returnOnBets());
+        }
+    }
+
+    /**
+     * Evaluates the candidates and returns every evaluation, best first.
+     */
+    public List<Evaluation> optimize(List<Candidate> candidates, long seed) {
+        return optimize(candidates, seed, (batch, left) -> { });
+    }
+
+    /**
+     * Like optimize(candidates, seed), calling onBatch with the batch number and the
+     * candidates left after each batch.
+     */
+    public List<Evaluation> optimize(List<Candidate> candidates, long seed, BiConsumer<Integer, Integer> onBatch) {
+        List<Evaluation> all = new ArrayList<>();
+        for (Candidate candidate : candidates) {
+            all.add(new Evaluation(candidate));
+        }
+        List<Evaluation> alive = new ArrayList<>(all);
+        for (int batch = 0; batch < maxBatches && alive.size() > 1; batch++) {
+            long batchSeed = seed + batch * 0x632BE59BD9B4E019L;
+            for (Evaluation evaluation : alive) {
+                Candidate candidate = evaluation.candidate;
+                MonteCarloSimulator simulator = new MonteCarloSimulator(candidate.toTable(), system);
+                MonteCarloSimulator.Result result = simulator.runSessions(sessionsPerBatch, handsPerSession,
+                    candidate.stopLossUnits * BlackjackRules.BET_UNIT, batchSeed);
+                evaluation.total.add(result);
+                evaluation.batchMeans.add(result.meanPerSession());
+            }
+            if (batch + 1 >= MIN_BATCHES) {
+                eliminate(alive);
+            }
+            onBatch.accept(batch + 1, alive.size());
+        }
+        all.sort(Comparator.comparing((Evaluation e) -> e.eliminated)
+            .thenComparing(Comparator.comparingDouble(Evaluation::mean).reversed()));
+        return all;
+    }
+
+    // drops candidates that are clearly worse than the leader, comparing batch by batch
+    private static void eliminate(List<Evaluation> alive) {
+        Evaluation leader = alive.get(0);
+        for (Evaluation evaluation : alive) {
+            if (evaluation.mean() > leader.mean()) {
+                leader = evaluation;
+            }
+        }
+        List<Evaluation> dropped = new ArrayList<>();
+        for (Evaluation evaluation : alive) {
+            if (evaluation == leader) {
+                continue;
+            }
+            int n = evaluation.batchMeans.size();
+            double sum = 0;
+            double sumSquares = 0;
+            for (int b = 0; b < n; b++) {
+                double diff = evaluation.batchMeans.get(b) - leader.batchMeans.get(b);
+                sum += diff;
+                sumSquares += diff * diff;
+            }
+            double mean = sum / n;
+            double variance = Math.max(0, (sumSquares - n * mean * mean) / (n - 1));
+            if (mean + ELIMINATE_Z * Math.sqrt(variance / n) < 0) {
+                evaluation.eliminated = true;
+                dropped.add(evaluation);
+            }
+        }
+        alive.removeAll(dropped);
+    }
+
+    /**
+     * A grid of candidates: ramps that start at different true counts and top out at
+     * different sizes, the standard deviations shifted up and down or left out, and a
+     * few stop-losses.
+     */
+    public static List<Candidate> grid() {
+        List<Candidate> candidates = new ArrayList<>();
+        int[] rampStarts = { 1, 2, 3 };
+        int[] maxUnits = { 4, 8, 12 };
+        int[] deviationShifts = { Integer.MIN_VALUE, -1, 0, 1 };
+        int[] stopLosses = { 0, 20, 50 };
+        for (int rampStart : rampStarts) {
+            for (int max : maxUnits) {
+                for (int shift : deviationShifts) {
+                    for (int stopLoss : stopLosses) {
+                        Candidate candidate = new Candidate();
+                        candidate.betRamp = ramp(rampStart, max);
+                        candidate.deviationIndexes = shift == Integer.MIN_VALUE ? null : shiftedDeviations(shift);
+                        candidate.stopLossUnits = stopLoss;
+                        candidates.add(candidate);
+                    }
+                }
+            }
+        }
+        return candidates;
+    }
+
+    // one unit below the start, then doubling up to max
+    private static int[] ramp(int start, int max) {
+        int[] ramp = new int[StrategyTable.MAX_TRUE_COUNT - StrategyTable.MIN_TRUE_COUNT + 1];
+        for (int tc = StrategyTable.MIN_TRUE_COUNT; tc <= StrategyTable.MAX_TRUE_COUNT; tc++) {
+            int steps = tc - start + 1;
+            ramp[tc - StrategyTable.MIN_TRUE_COUNT] = steps <= 0 ? 1 : (int) Math.min(max, 1L << steps);
+        }
+        return ramp;
+    }
+
+    private static int[] shiftedDeviations(int shift) {
+        int[] indexes = StrategyTable.deviationIndexes();
+        for (int i = 0; i < indexes.length; i++) {
+            indexes[i] += shift;
+        }
+        return indexes;
+    }
+
+    // usage: StrategyOptimizer [handsPerSession] [sessionsPerBatch] [maxBatches] [seed]
+    public static void main(String[] args) {
+        int handsPerSession = args.length > 0 ? Integer.parseInt(args[0]) : 100;
+        long sessionsPerBatch = args.length > 1 ? Long.parseLong(args[1]) : 2000;
+        int maxBatches = args.length > 2 ? Integer.parseInt(args[2]) : 20;
+        long seed = args.length > 3 ? Long.parseLong(args[3]) : 1L;
+
+        List<Candidate> candidates = grid();
+        System.out.println("Trying " + candidates.size() + " candidates, " + sessionsPerBatch + " sessions of "
+            + handsPerSession + " hands per batch, on " + Runtime.getRuntime().availableProcessors() + " cores");
+        long start = System.nanoTime();
+        List<Evaluation> results = new StrategyOptimizer(CountingSystem.HI_LO, handsPerSession, sessionsPerBatch, maxBatches)
+            .optimize(candidates, seed, (batch, left) -> System.out.println("batch " + batch + ": " + left + " candidates left"));
+        System.out.println("\nBest:\n" + results.get(0));
+        System.out.println("\nRunners up:");
+        for (int i = 1; i < Math.min(5, results.size()); i++) {
+            System.out.println(results.get(i));
+        }
+        System.out.println("\nelapsed: " + (System.nanoTime() - start) / 1_000_000 + " ms");
+    }
+}
@@ -0,0 +1,231 @@
+package client;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * Precomputed hit/stand decisions and bet sizes, so that a decision is a single array lookup.
+ *
+ * Hit/stand is indexed by (soft or hard, player total, dealer up card, true count bucket)
+ * and bet size by true count bucket. True counts are rounded down and clamped to
+ * MIN_TRUE_COUNT..MAX_TRUE_COUNT. Bets are stored in units of BlackjackRules.BET_UNIT.
+ */
+public class StrategyTable
+{
+    public static final int MIN_TRUE_COUNT = -5;
+    public static final int MAX_TRUE_COUNT = 5;
+
+    private static final int BUCKETS = MAX_TRUE_COUNT - MIN_TRUE_COUNT + 1;
+    // player totals 0..21; below 4 is never seen
+    private static final int TOTALS = BlackjackRules.BLACKJACK + 1;
+    // dealer up card values 0..11; 2 to 11 are used
+    private static final int UP_CARDS = 12;
+
+    private static final int MAGIC = 0x424A5354; // "BJST"
+    private static final int VERSION = 1;
+
+    private final boolean[] hit = new boolean[2 * TOTALS * UP_CARDS * BUCKETS];
+    private final int[] betUnits = new int[BUCKETS];
+
+    /**
+     * A table that always stands and bets one unit.
+     */
+    public StrategyTable()
+    {
+        Arrays.fill(betUnits, 1);
+    }
+
+    // count-based deviations: stand on the hard total against the up card once the true count reaches the index
+    // {total, dealer up card, index}
+    private static final int[][] DEVIATIONS = {
+        { 16, 10, 0 },
+        { 16, 9, 5 },
+        { 15, 10, 4 },
+        { 13, 2, -1 },
+        { 13, 3, -2 },
+        { 12, 2, 3 },
+        { 12, 3, 2 },
+        { 12, 4, 0 },
+        { 12, 5, -2 },
+        { 12, 6, -1 },
+    };
+
+    // bet units by true count, MIN_TRUE_COUNT to MAX_TRUE_COUNT
+    private static final int[] BASIC_RAMP = { 1, 1, 1, 1, 1, 1, 1, 2, 4, 6, 8 };
+
+    /**
+     * Basic strategy for these rules (hit or stand only, dealer stands on soft 17),
+     * with the usual count-based deviations for stiff hands and a 1-8 unit bet ramp.
+     */
+    public static StrategyTable basic() {
+        StrategyTable table = basicWithoutDeviations();
+        table.applyDeviations(deviationIndexes());
+        table.setBetRamp(BASIC_RAMP);
+        return table;
+    }
+
+    // the usual index for each deviation, in a new array the caller may change
+    public static int[] deviationIndexes() {
+        int[] indexes = new int[DEVIATIONS.length];
+        for (int i = 0; i < indexes.length; i++) {
+            indexes[i] = DEVIATIONS[i][2];
+        }
+        return indexes;
+    }
+
+    /**
+     * Plays each of the count-based deviations from the given index instead of its usual one.
+     */
+    public void applyDeviations(int[] indexes) {
+        if (indexes.length != DEVIATIONS.length) {
+            throw new IllegalArgumentException("Need " + DEVIATIONS.length + " indexes, got " + indexes.length);
+        }
+        for (int i = 0; i < indexes.length; i++) {
+            standFrom(DEVIATIONS[i][0], DEVIATIONS[i][1], indexes[i]);
+        }
+    }
+
+    /**
+     * Basic strategy that ignores the count, betting one unit.
+     */
+    public static StrategyTable basicWithoutDeviations() {
+        StrategyTable table = new StrategyTable();
+        for (int up = 2; up <= 11; up++) {
+            for (int total = 4; total <= 21; total++) {
+                boolean hardHit = total <= 11 || (total <= 16 && up >= 7) || (total == 12 && up <= 3);
+                boolean softHit = total <= 17 || (total == 18 && up >= 9);
+                for (int tc = MIN_TRUE_COUNT; tc <= MAX_TRUE_COUNT; tc++) {
+                    table.setHit(false, total, up, tc, hardHit);
+                    table.setHit(true, total, up, tc, softHit);
+                }
+            }
+        }
+        return table;
+    }
+
+    public boolean shouldHit(int total, boolean soft, int dealerUp, double trueCount) {
+        return shouldHit(total, soft, dealerUp, bucket(trueCount));
+    }
+
+    public boolean shouldHit(int total, boolean soft, int dealerUp, int trueCount) {
+        if (total >= TOTALS) {
+            return false;
+        }
+        return hit[index(soft, total, dealerUp, clamp(trueCount))];
+    }
+
+    // amount to bet, a multiple of BlackjackRules.BET_UNIT
+    public int bet(double trueCount) {
+        return bet(bucket(trueCount));
+    }
+
+    public int bet(int trueCount) {
+        return betUnits[clamp(trueCount) - MIN_TRUE_COUNT] * BlackjackRules.BET_UNIT;
+    }
+
+    public void setHit(boolean soft, int total, int dealerUp, int trueCount, boolean hit) {
+        this.hit[index(soft, total, dealerUp, clamp(trueCount))] = hit;
+    }
+
+    // stand on the hard total against the up card at this true count and above
+    public void standFrom(int total, int dealerUp, int trueCount) {
+        for (int tc = MIN_TRUE_COUNT; tc <= MAX_TRUE_COUNT; tc++) {
+            setHit(false, total, dealerUp, tc, tc < trueCount);
+        }
+    }
+
+    // bet units for each true count from MIN_TRUE_COUNT to MAX_TRUE_COUNT
+    public void setBetRamp(int[] units) {
+        if (units.length != BUCKETS) {
+            throw new IllegalArgumentException("Need " + BUCKETS + " bet sizes, got " + units.length);
+        }
+        for (int tc = MIN_TRUE_COUNT; tc <= MAX_TRUE_COUNT; tc++) {
+            setBetUnits(tc, units[tc - MIN_TRUE_COUNT]);
+        }
+    }
+
+    public void setBetUnits(int trueCount, int units) {
+        if (units < 1) {
+            throw new IllegalArgumentException("Bet must be at least one unit: " + units);
+        }
+        betUnits[clamp(trueCount) - MIN_TRUE_COUNT] = units;
+    }
+
+    public static int bucket(double trueCount) {
+        return clamp((int) Math.floor(trueCount));
+    }
+
+    private static int clamp(int trueCount) {
+        return Math.max(MIN_TRUE_COUNT, Math.min(MAX_TRUE_COUNT, trueCount));
+    }
+
+    private static int index(boolean soft, int total, int dealerUp, int trueCount) {
+        return (((soft ? TOTALS : 0) + total) * UP_CARDS + dealerUp) * BUCKETS + trueCount - MIN_TRUE_COUNT;
+    }
+
+    /**
+     * Writes the table as a small binary file: a header, the hit/stand decisions
+     * packed eight to a byte, then the bet units.
+     */
+    public void save(Path file) throws IOException {
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(file))) {
+            write(out);
+        }
+    }
+
+    public void write(OutputStream stream) throws IOException {
+        DataOutputStream out = new DataOutputStream(stream);
+        out.writeInt(MAGIC);
+        out.writeByte(VERSION);
+        out.writeByte(MIN_TRUE_COUNT);
+        out.writeByte(MAX_TRUE_COUNT);
+        byte[] packed = new byte[(hit.length + 7) / 8];
+        for (int i = 0; i < hit.length; i++) {
+            if (hit[i]) {
+                packed[i >> 3] |= 1 << (i & 7);
+            }
+        }
+        out.write(packed);
+        for (int units : betUnits) {
+            out.writeShort(units);
+        }
+        out.flush();
+    }
+
+    public static StrategyTable load(Path file) throws IOException {
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(file))) {
+            return read(in);
+        }
+    }
+
+    public static StrategyTable read(InputStream stream) throws IOException {
+        DataInputStream in = new DataInputStream(stream);
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not a strategy table");
+        }
+        int version = in.readByte();
+        int min = in.readByte();
+        int max = in.readByte();
+        if (version != VERSION || min != MIN_TRUE_COUNT || max != MAX_TRUE_COUNT) {
+            throw new IOException("Unsupported strategy table: version " + version + ", counts " + min + ".." + max);
+        }
+        StrategyTable table = new StrategyTable();
+        byte[] packed = new byte[(table.hit.length + 7) / 8];
+        in.readFully(packed);
+        for (int i = 0; i < table.hit.length; i++) {
+            table.hit[i] = (packed[i >> 3] & (1 << (i & 7))) != 0;
+        }
+        for (int i = 0; i < BUCKETS; i++) {
+            table.betUnits[i] = in.readShort();
+        }
+        return table;
+    }
+}
@@ -0,0 +1,231 @@
+package client;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * A stand-in for the campus REST server, backed by LocalBlackjackEngine.
+ * Serves the same URLs and JSON as the real server so ClientConnecter and the GUI
+ * can be run and benchmarked off campus. Latency and errors can be injected to
+ * simulate a slow or overloaded server.
+ */
+public class StubServer
+{
+    public static final String CONTEXT = "/api/blackjack";
+    // requests handled at once without virtual threads; more than any client here keeps in flight
+    private static final int MAX_THREADS = 512;
+
+    static {
+        // without TCP_NODELAY small responses wait on delayed ACKs, adding ~40ms to every call
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+    }
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    // one engine per username, so each user only sees their own sessions
+    private final ConcurrentHashMap<String, LocalBlackjackEngine> engines = new ConcurrentHashMap<>();
+    // which user owns each session
+    private final ConcurrentHashMap<UUID, String> owners = new ConcurrentHashMap<>();
+    // the first password each user logged in with; any other is refused
+    private final ConcurrentHashMap<String, String> passwords = new ConcurrentHashMap<>();
+
+    private volatile int latencyMillis;
+    private volatile int jitterMillis;
+    private volatile double errorRate;
+
+    // port 0 picks any free port; use getBaseUrl() to find out which
+    public StubServer(int port) throws IOException
+    {
+        server = HttpServer.create(new InetSocketAddress("localhost", port), 0);
+        server.createContext(CONTEXT, this::handle);
+        executor = Threads.newThreadPerTaskExecutor(MAX_THREADS);
+        server.setExecutor(executor);
+    }
+
+    /**
+     * Delay every response by latencyMillis plus a random 0..jitterMillis.
+     */
+    public void setLatency(int latencyMillis, int jitterMillis) {
+        this.latencyMillis = latencyMillis;
+        this.jitterMillis = jitterMillis;
+    }
+
+    /**
+     * Fraction of requests (0.0 to 1.0) that fail with a 503 instead of being played.
+     */
+    public void setErrorRate(double errorRate) {
+        this.errorRate = errorRate;
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    public void stop() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    public String getBaseUrl() {
+        return "http://localhost:" + server.getAddress().getPort() + CONTEXT;
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            injectLatency();
+            if (errorRate > 0 && ThreadLocalRandom.current().nextDouble() < errorRate) {
+                respond(exchange, 503, "{\"error\":\"injected failure\"}");
+                return;
+            }
+            String path = exchange.getRequestURI().getPath().substring(CONTEXT.length());
+            Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+            Object result = route(exchange.getRequestMethod(), path.split("/"), query);
+            if (result == null) {
+                respond(exchange, 404, "{\"error\":\"not found: " + path + "\"}");
+            } else {
+                respond(exchange, 200, JsonUtil.GSON.toJson(result));
+            }
+        } catch (Unauthorized e) {
+            respond(exchange, 401, JsonUtil.GSON.toJson(Map.of("error", e.getMessage())));
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            respond(exchange, 400, JsonUtil.GSON.toJson(Map.of("error", String.valueOf(e.getMessage()))));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            respond(exchange, 503, "{\"error\":\"shutting down\"}");
+        } catch (RuntimeException e) {
+            respond(exchange, 500, JsonUtil.GSON.toJson(Map.of("error", e.toString())));
+        } finally {
+            exchange.close();
+        }
+    }
+
+    // parts[0] is always "" because the path starts with a slash
+    private Object route(String method, String[] parts, Map<String, String> query) {
+        if (method.equals("GET")) {
+            if (parts.length == 3 && parts[1].equals("sessions")) {
+                return engine(parts[2], query.get("password")).listSessions();
+            }
+            return null;
+        }
+        if (!method.equals("POST")) {
+            return null;
+        }
+        if (parts.length == 2 && parts[1].equals("start")) {
+            GameState state = engine(query.get("username"), query.get("password")).startGame();
+            owners.put(state.sessionId, query.get("username"));
+            return state;
+        }
+        if (parts.length == 3 && parts[1].equals("resume")) {
+            UUID sessionId = UUID.fromString(parts[2]);
+            return engineFor(sessionId, query).resumeSession(sessionId);
+        }
+        if (parts.length < 3) {
+            return null;
+        }
+        UUID sessionId = UUID.fromString(parts[1]);
+        LocalBlackjackEngine engine = engineFor(sessionId, query);
+        switch (parts[2]) {
+            case "bet":
+                return parts.length == 4 ? engine.placeBet(sessionId, Integer.parseInt(parts[3])) : null;
+            case "hit":
+                return engine.hit(sessionId);
+            case "stand":
+                return engine.stand(sessionId);
+            case "reset":
+                return engine.newGame(sessionId);
+            case "finish":
+                engine.finishGame(sessionId);
+                owners.remove(sessionId);
+                return Map.of("sessionId", sessionId.toString());
+            default:
+                return null;
+        }
+    }
+
+    private LocalBlackjackEngine engine(String username, String password) {
+        if (username == null || password == null) {
+            throw new IllegalArgumentException("username and password are required");
+        }
+        String expected = passwords.putIfAbsent(username, password);
+        if (expected != null && !expected.equals(password)) {
+            throw new Unauthorized(username);
+        }
+        return engines.computeIfAbsent(username, name -> new LocalBlackjackEngine());
+    }
+
+    private LocalBlackjackEngine engineFor(UUID sessionId, Map<String, String> query) {
+        String owner = owners.get(sessionId);
+        if (owner == null || !owner.equals(query.get("username"))) {
+            throw new IllegalArgumentException("No such session: " + sessionId);
+        }
+        return engine(owner, query.get("password"));
+    }
+
+    private static class Unauthorized extends RuntimeException
+    {
+        private static final long serialVersionUID = 1L;
+
+        Unauthorized(String username)
+        {
+            super("Wrong password for " + username);
+        }
+    }
+
+    private void injectLatency() throws InterruptedException {
+        int delay = latencyMillis;
+        if (jitterMillis > 0) {
+            delay += ThreadLocalRandom.current().nextInt(jitterMillis + 1);
+        }
+        if (delay > 0) {
+            Thread.sleep(delay);
+        }
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> query = new HashMap<>();
+        if (rawQuery == null) {
+            return query;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq > 0) {
+                query.put(URLDecoder.decode(pair.substring(0, eq), StandardCharsets.UTF_8),
+                    URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return query;
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    // usage: StubServer [port] [latencyMillis] [jitterMillis] [errorRate]
+    public static void main(String[] args) throws Exception {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 8080;
+        StubServer server = new StubServer(port);
+        server.setLatency(args.length > 1 ? Integer.parseInt(args[1]) : 0, args.length > 2 ? Integer.parseInt(args[2]) : 0);
+        server.setErrorRate(args.length > 3 ? Double.parseDouble(args[3]) : 0.0);
+        server.start();
+        System.out.println("Stub Blackjack server running at " + server.getBaseUrl());
+    }
+}
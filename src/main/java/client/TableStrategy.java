@@ -0,0 +1,51 @@
+package client;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Plays from a StrategyTable, keeping a card count for each session
+ * to pick the row of the table.
+ */
+public class TableStrategy implements Strategy
+{
+    private final StrategyTable table;
+    private final CardCounters counters;
+
+    public TableStrategy(StrategyTable table, CountingSystem system)
+    {
+        this.table = table;
+        this.counters = new CardCounters(system);
+    }
+
+    @Override
+    public void observe(GameState state) {
+        counters.onGameState(null, state);
+    }
+
+    @Override
+    public void finished(UUID sessionId) {
+        counters.remove(sessionId);
+    }
+
+    @Override
+    public int chooseBet(GameState state) {
+        return table.bet(counters.get(state.sessionId).getTrueCount());
+    }
+
+    @Override
+    public boolean shouldHit(GameState state) {
+        List<Card> player = state.getPlayerHand();
+        int hardTotal = 0;
+        boolean hasAce = false;
+        for (int i = 0; i < player.size(); i++) {
+            Card card = player.get(i);
+            hasAce |= card.isAce();
+            hardTotal += card.isAce() ? 1 : card.getValue();
+        }
+        int total = BlackjackRules.bestTotal(hardTotal, hasAce);
+        boolean soft = total != hardTotal;
+        int dealerUp = state.getDealerHand().get(0).getValue();
+        return table.shouldHit(total, soft, dealerUp, counters.get(state.sessionId).getTrueCount());
+    }
+}
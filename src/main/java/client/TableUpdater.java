@@ -0,0 +1,157 @@
+package client;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.swing.JButton;
+import javax.swing.JLabel;
+import javax.swing.SwingUtilities;
+
+/**
+ * Shows GameStates in the GUI, touching only what changed since the last one.
+ *
+ * update() can be called from any thread, typically the HTTP client's when a response
+ * arrives. The work is handed to the EDT, and if several states arrive before it
+ * runs, only the newest is shown. Cards are compared with what the CardPanel is
+ * showing, so a face-down placeholder added by expectCard() flips to the real card.
+ */
+public class TableUpdater
+{
+    private final CardPanel cardPanel;
+    private final JButton hitButton;
+    private final JButton standButton;
+    private final JButton dealButton;
+    private final JLabel statusLabel;
+
+    private final AtomicReference<GameState> latest = new AtomicReference<>();
+    // the state on screen and whether a call is on its way; EDT only
+    private GameState shown;
+    private boolean waiting;
+
+    public TableUpdater(CardPanel cardPanel, JButton hitButton, JButton standButton, JButton dealButton, JLabel statusLabel)
+    {
+        this.cardPanel = cardPanel;
+        this.hitButton = hitButton;
+        this.standButton = standButton;
+        this.dealButton = dealButton;
+        this.statusLabel = statusLabel;
+        updateButtons();
+    }
+
+    public void update(GameState state) {
+        if (latest.getAndSet(state) == null) {
+            SwingUtilities.invokeLater(this::applyLatest);
+        }
+    }
+
+    /**
+     * Call on the EDT right before sending a call, so the table reacts to the click at
+     * once: the buttons are disabled until the answer comes.
+     */
+    public void expectResponse() {
+        waiting = true;
+        updateButtons();
+    }
+
+    /**
+     * Like expectResponse(), and also deals the player a face-down card that is turned
+     * over when the server says what it is. For hit.
+     */
+    public void expectCard() {
+        expectResponse();
+        if (cardPanel.getPlayerCardCount() < CardPanel.MAX_CARDS) {
+            cardPanel.addPlayerCard(Card.HIDDEN);
+        }
+    }
+
+    /**
+     * The call failed; put the table back the way the last state had it. Call on the EDT.
+     */
+    public void revert() {
+        waiting = false;
+        if (shown != null) {
+            showCards(shown);
+        }
+        updateButtons();
+    }
+
+    public GameState getShown() {
+        return shown;
+    }
+
+    private void applyLatest() {
+        GameState state = latest.getAndSet(null);
+        if (state == null) {
+            return;
+        }
+        GameState previous = shown;
+        shown = state;
+        waiting = false;
+        showCards(state);
+        if (previous == null || previous.balance != state.balance || previous.currentBet != state.currentBet
+            || previous.playerValue != state.playerValue || !same(previous.dealerValue, state.dealerValue)
+            || !same(previous.phase, state.phase) || !same(previous.outcome, state.outcome)) {
+            statusLabel.setText(status(state));
+        }
+        updateButtons();
+    }
+
+    private void showCards(GameState state) {
+        List<Card> dealer = state.getDealerHand();
+        for (int i = 0; i < dealer.size() && i < CardPanel.MAX_CARDS; i++) {
+            if (i >= cardPanel.getDealerCardCount()) {
+                cardPanel.addDealerCard(dealer.get(i));
+            } else if (cardPanel.getDealerCard(i) != dealer.get(i)) {
+                cardPanel.setDealerCard(i, dealer.get(i));
+            }
+        }
+        cardPanel.removeDealerCards(dealer.size());
+
+        List<Card> player = state.getPlayerHand();
+        for (int i = 0; i < player.size() && i < CardPanel.MAX_CARDS; i++) {
+            if (i >= cardPanel.getPlayerCardCount()) {
+                cardPanel.addPlayerCard(player.get(i));
+            } else if (cardPanel.getPlayerCard(i) != player.get(i)) {
+                cardPanel.setPlayerCard(i, player.get(i));
+            }
+        }
+        cardPanel.removePlayerCards(player.size());
+    }
+
+    private void updateButtons() {
+        boolean playing = shown != null && !waiting;
+        setEnabled(hitButton, playing && shown.canHit);
+        setEnabled(standButton, playing && shown.canStand);
+        setEnabled(dealButton, playing && !BlackjackRules.PLAYER_TURN.equals(shown.phase));
+    }
+
+    private static void setEnabled(JButton button, boolean enabled) {
+        if (button.isEnabled() != enabled) {
+            button.setEnabled(enabled);
+        }
+    }
+
+    private static String status(GameState state) {
+        StringBuilder text = new StringBuilder();
+        text.append("Balance: ").append(state.balance);
+        if (state.currentBet > 0) {
+            text.append("   Bet: ").append(state.currentBet);
+        }
+        if (!state.getPlayerHand().isEmpty()) {
+            text.append("   You: ").append(state.playerValue);
+        }
+        if (state.dealerValue != null) {
+            text.append("   Dealer: ").append(state.dealerValue);
+        }
+        if (state.outcome != null) {
+            text.append("   ").append(state.outcome.replace('_', ' '));
+        } else if (state.phase != null) {
+            text.append("   ").append(state.phase.replace('_', ' '));
+        }
+        return text.toString();
+    }
+
+    private static boolean same(Object a, Object b) {
+        return a == null ? b == null : a.equals(b);
+    }
+}
@@ -8,9 +8,9 @@ import java.net.http.HttpResponse;
 public class TestURLs 
 {
     static final String baseUrl = "http://euclid.knox.edu:8080/api/blackjack";
-    static final String username = "dnduong";
-    static final String password = "f1484a0";
-    static final String params = "?username=" + username + "&password=" + password;
+    static final Account account = Account.firstOr(Account.DEFAULT_FILE, new Account("dnduong", "f1484a0"));
+    static final String params = "?username=" + account.username + "&password=" + account.password;
+    static final HttpClient client = TransportConfig.defaults().client();
 
     static String makeURL(String endpoint) 
     {
@@ -53,7 +53,6 @@ public class TestURLs
 
     public static String sendHTTPPostRequest(String url) 
     {
-        HttpClient client = HttpClient.newHttpClient();
         HttpRequest request = HttpRequest.newBuilder()
                 .uri(URI.create(url))
                 .POST(HttpRequest.BodyPublishers.noBody())
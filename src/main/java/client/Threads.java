@@ -0,0 +1,23 @@
+package client;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Executors shared by the runner and the stub server.
+ */
+public class Threads
+{
+    /**
+     * One virtual thread per task where the JVM has them (Java 21 and later). Older
+     * JVMs get a pool of at most maxThreads platform threads, and tasks beyond that
+     * wait for one to come free.
+     */
+    public static ExecutorService newThreadPerTaskExecutor(int maxThreads) {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newFixedThreadPool(maxThreads);
+        }
+    }
+}
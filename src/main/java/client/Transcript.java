@@ -0,0 +1,196 @@
+package client;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * A recording of every call a ClientConnecter made: what was asked, when, how long it
+ * took, and the exact response bytes. Replay it with ReplayApi.
+ *
+ * The file is gzipped binary: a header, then one record per call with the action,
+ * start time (nanoseconds since recording began), duration, status, request path and
+ * body. The query string holds the password and is left out. A call that got no
+ * response is recorded with status 0 and an empty body. A call that was retried is
+ * one record, for its final result, timed from its first attempt.
+ */
+public class Transcript
+{
+    private static final int MAGIC = 0x424A5452; // "BJTR"
+    private static final int VERSION = 1;
+
+    public static class Exchange
+    {
+        public Action action;
+        public long startNanos;
+        public long durationNanos;
+        public int status;
+        public String path;
+        public byte[] body;
+
+        // the session id in the path, or null for start and list
+        public UUID sessionId() {
+            for (String part : path.split("/")) {
+                if (part.length() == 36) {
+                    try {
+                        return UUID.fromString(part);
+                    } catch (IllegalArgumentException e) {
+                        // not a session id
+                    }
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Reads a whole transcript. A recording cut short (say the process was killed)
+     * is read up to the last record written before it stopped; the Recorder flushes
+     * each record as it is written.
+     */
+    public static List<Exchange> read(Path file) throws IOException {
+        List<Exchange> exchanges = new ArrayList<>();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(Files.newInputStream(file))))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Not a transcript: " + file);
+            }
+            int version = in.readByte();
+            if (version != VERSION) {
+                throw new IOException("Unsupported transcript version " + version);
+            }
+            while (true) {
+                Exchange exchange = new Exchange();
+                try {
+                    int action = in.read();
+                    if (action < 0) {
+                        break;
+                    }
+                    exchange.action = Action.fromByte((byte) action);
+                    exchange.startNanos = in.readLong();
+                    exchange.durationNanos = in.readLong();
+                    exchange.status = in.readShort();
+                    exchange.path = in.readUTF();
+                    exchange.body = new byte[in.readInt()];
+                    in.readFully(exchange.body);
+                } catch (EOFException e) {
+                    break;
+                }
+                exchanges.add(exchange);
+            }
+        }
+        return exchanges;
+    }
+
+    /**
+     * Writes calls to a transcript file as they happen. Safe to share between threads
+     * and connecters.
+     *
+     * Each record is flushed through the compressor to the file as it is written, so
+     * a killed process loses at most the call in progress (the operating system may
+     * still hold the last writes if the machine itself goes down). A write that fails
+     * stops the recording rather than the calls being recorded; close() then throws
+     * that failure.
+     */
+    public static class Recorder implements Closeable
+    {
+        private final DataOutputStream out;
+        private final long startNanos = System.nanoTime();
+        private IOException failure;
+
+        public Recorder(Path file) throws IOException
+        {
+            // a sync flush makes the compressor write out everything it holds, not just whole blocks
+            out = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(Files.newOutputStream(file), true)));
+            out.writeInt(MAGIC);
+            out.writeByte(VERSION);
+            out.flush();
+        }
+
+        public synchronized void record(Action action, URI uri, long startNanos, long durationNanos, int status, byte[] body) {
+            if (failure != null) {
+                return;
+            }
+            try {
+                out.writeByte(action.ordinal());
+                out.writeLong(startNanos - this.startNanos);
+                out.writeLong(durationNanos);
+                out.writeShort(status);
+                out.writeUTF(uri.getPath());
+                out.writeInt(body.length);
+                out.write(body);
+                out.flush();
+            } catch (IOException e) {
+                failure = e;
+            }
+        }
+
+        // the write that stopped the recording, or null
+        public synchronized IOException getFailure() {
+            return failure;
+        }
+
+        @Override
+        public synchronized void close() throws IOException {
+            try {
+                out.close();
+            } catch (IOException e) {
+                if (failure == null) {
+                    throw e;
+                }
+                failure.addSuppressed(e);
+            }
+            if (failure != null) {
+                throw new IOException("Transcript recording stopped early", failure);
+            }
+        }
+    }
+
+    /**
+     * Decodes every response in a transcript and shows it to a strategy as fast as
+     * possible, to measure the client side alone.
+     */
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            System.out.println("usage: Transcript <file> [passes]");
+            return;
+        }
+        List<Exchange> exchanges = read(Path.of(args[0]));
+        int passes = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        long recordedNanos = 0;
+        for (Exchange exchange : exchanges) {
+            recordedNanos = Math.max(recordedNanos, exchange.startNanos + exchange.durationNanos);
+        }
+        System.out.println(exchanges.size() + " calls recorded over " + recordedNanos / 1_000_000 + " ms");
+
+        long decoded = 0;
+        long start = System.nanoTime();
+        for (int pass = 0; pass < passes; pass++) {
+            Strategy strategy = new TableStrategy(StrategyTable.basic(), CountingSystem.HI_LO);
+            for (Exchange exchange : exchanges) {
+                if (exchange.status / 100 == 2 && exchange.action != Action.LIST && exchange.action != Action.FINISH) {
+                    GameState state = GameStateDecoder.decode(exchange.body);
+                    strategy.observe(state);
+                    if (state.canHit) {
+                        strategy.shouldHit(state);
+                    }
+                    decoded++;
+                }
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        System.out.printf("replayed %d responses in %d ms: %.0f responses/sec%n",
+            decoded, elapsed / 1_000_000, decoded * 1e9 / elapsed);
+    }
+}
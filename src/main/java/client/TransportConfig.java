@@ -0,0 +1,69 @@
+package client;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+
+/**
+ * How connecters talk HTTP: protocol version, timeouts and the executor the client
+ * runs its async work on.
+ *
+ * HttpClients are shared: every connecter in the JVM with the same version, connect
+ * timeout and executor gets the same client, so they share its connection pool and
+ * never pay for a new connection or selector thread per connecter.
+ */
+public class TransportConfig
+{
+    private static final ConcurrentHashMap<List<Object>, HttpClient> CLIENTS = new ConcurrentHashMap<>();
+
+    // The server only speaks plain HTTP/1.1; asking for HTTP/2 just adds an upgrade attempt.
+    public HttpClient.Version version = HttpClient.Version.HTTP_1_1;
+    public Duration connectTimeout = Duration.ofSeconds(5);
+    // null means wait as long as the server takes
+    public Duration requestTimeout = Duration.ofSeconds(30);
+    // null means the client's own default pool
+    public Executor executor;
+
+    public static TransportConfig defaults() {
+        return new TransportConfig();
+    }
+
+    public TransportConfig version(HttpClient.Version version) {
+        this.version = version;
+        return this;
+    }
+
+    public TransportConfig connectTimeout(Duration connectTimeout) {
+        this.connectTimeout = connectTimeout;
+        return this;
+    }
+
+    public TransportConfig requestTimeout(Duration requestTimeout) {
+        this.requestTimeout = requestTimeout;
+        return this;
+    }
+
+    public TransportConfig executor(Executor executor) {
+        this.executor = executor;
+        return this;
+    }
+
+    // the shared client for this config
+    public HttpClient client() {
+        return CLIENTS.computeIfAbsent(Arrays.asList(version, connectTimeout, executor), key -> build());
+    }
+
+    private HttpClient build() {
+        HttpClient.Builder builder = HttpClient.newBuilder().version(version);
+        if (connectTimeout != null) {
+            builder.connectTimeout(connectTimeout);
+        }
+        if (executor != null) {
+            builder.executor(executor);
+        }
+        return builder.build();
+    }
+}
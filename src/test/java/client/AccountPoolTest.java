@@ -0,0 +1,90 @@
+package client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+public class AccountPoolTest
+{
+    private static final List<Account> ACCOUNTS = List.of(
+        new Account("superman", "1"), new Account("batman", "2"), new Account("robin", "3"));
+
+    @Test
+    public void spreadsSessionsAndReleasesThem() throws Exception {
+        StubServer server = new StubServer(0);
+        server.start();
+        try {
+            // warm up the JVM's HTTP client, so the first calls aren't much slower than the
+            // rest, then give every call the same latency
+            AccountPool warmUp = new AccountPool(server.getBaseUrl(), ACCOUNTS);
+            for (int i = 0; i < 10; i++) {
+                warmUp.listSessions();
+            }
+            server.setLatency(20, 0);
+
+            AccountPool pool = new AccountPool(server.getBaseUrl(), ACCOUNTS);
+            List<GameState> started = new ArrayList<>();
+            for (int i = 0; i < 30; i++) {
+                started.add(pool.startGame());
+            }
+            int total = 0;
+            for (AccountPool.Shard shard : pool.getShards()) {
+                assertTrue(shard.getSessions() >= 5, shard.toString());
+                total += shard.getSessions();
+            }
+            assertEquals(30, total);
+
+            // half finish, half are given up on; either way none are left counted
+            for (int i = 0; i < started.size(); i++) {
+                if (i % 2 == 0) {
+                    pool.finishGame(started.get(i).sessionId);
+                } else {
+                    pool.release(started.get(i).sessionId);
+                }
+            }
+            for (AccountPool.Shard shard : pool.getShards()) {
+                assertEquals(0, shard.getSessions(), shard.toString());
+            }
+            // releasing twice, or after finishing, changes nothing
+            pool.release(started.get(0).sessionId);
+            pool.release(started.get(1).sessionId);
+            for (AccountPool.Shard shard : pool.getShards()) {
+                assertEquals(0, shard.getSessions(), shard.toString());
+            }
+        } finally {
+            server.stop();
+        }
+    }
+
+    @Test
+    public void resumesOnTheOwningAccount() throws Exception {
+        StubServer server = new StubServer(0);
+        server.start();
+        try {
+            AccountPool first = new AccountPool(server.getBaseUrl(), ACCOUNTS);
+            List<GameState> started = new ArrayList<>();
+            for (int i = 0; i < 6; i++) {
+                started.add(first.startGame());
+            }
+            // a new pool doesn't know the sessions, and finds each one's account
+            AccountPool second = new AccountPool(server.getBaseUrl(), ACCOUNTS);
+            for (GameState state : started) {
+                assertEquals(state.sessionId, second.resumeSession(state.sessionId).sessionId);
+            }
+            int total = 0;
+            for (AccountPool.Shard shard : second.getShards()) {
+                total += shard.getSessions();
+            }
+            assertEquals(6, total);
+            assertThrows(IllegalArgumentException.class, () -> second.resumeSession(UUID.randomUUID()));
+        } finally {
+            server.stop();
+        }
+    }
+}
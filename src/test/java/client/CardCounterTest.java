@@ -0,0 +1,136 @@
+package client;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+public class CardCounterTest
+{
+    @Test
+    public void hiLoTags() {
+        assertEquals(1, CountingSystem.HI_LO.tag(Card.TWO_OF_CLUBS));
+        assertEquals(1, CountingSystem.HI_LO.tag(Card.SIX_OF_HEARTS));
+        assertEquals(0, CountingSystem.HI_LO.tag(Card.SEVEN_OF_SPADES));
+        assertEquals(0, CountingSystem.HI_LO.tag(Card.NINE_OF_DIAMONDS));
+        assertEquals(-1, CountingSystem.HI_LO.tag(Card.TEN_OF_CLUBS));
+        assertEquals(-1, CountingSystem.HI_LO.tag(Card.KING_OF_HEARTS));
+        assertEquals(-1, CountingSystem.HI_LO.tag(Card.ACE_OF_SPADES));
+        assertEquals(0, CountingSystem.HI_LO.tag(Card.HIDDEN));
+    }
+
+    @Test
+    public void otherSystemsTags() {
+        assertEquals(1, CountingSystem.KO.tag(Card.SEVEN_OF_CLUBS));
+        assertEquals(2, CountingSystem.OMEGA_II.tag(Card.FIVE_OF_CLUBS));
+        assertEquals(-1, CountingSystem.OMEGA_II.tag(Card.NINE_OF_CLUBS));
+        assertEquals(-2, CountingSystem.OMEGA_II.tag(Card.QUEEN_OF_CLUBS));
+        assertEquals(0, CountingSystem.OMEGA_II.tag(Card.ACE_OF_CLUBS));
+    }
+
+    @Test
+    public void balancedSystemsCountAWholeDeckBackToTheStart() {
+        for (CountingSystem system : CountingSystem.values()) {
+            int count = system.initialCount(1);
+            for (Card card : Card.newDeck()) {
+                count += system.tag(card);
+            }
+            assertEquals(system.isBalanced() ? 0 : system.initialCount(1) + 4, count, system.name());
+        }
+        assertTrue(CountingSystem.HI_LO.isBalanced());
+        assertFalse(CountingSystem.KO.isBalanced());
+        assertEquals(0, CountingSystem.KO.initialCount(1));
+        assertEquals(-4, CountingSystem.KO.initialCount(2));
+    }
+
+    @Test
+    public void countsEachCardOnceAndTheHoleCardWhenTurned() {
+        CardCounter counter = new CardCounter(CountingSystem.HI_LO);
+        counter.update(state(List.of("2C", "5D"), List.of("KH", "???"), 48, false));
+        assertEquals(1, counter.getRunningCount());
+        assertEquals(3, counter.getCardsSeen());
+
+        // the same response again, then a hit
+        counter.update(state(List.of("2C", "5D"), List.of("KH", "???"), 48, false));
+        counter.update(state(List.of("2C", "5D", "3S"), List.of("KH", "???"), 47, false));
+        assertEquals(2, counter.getRunningCount());
+
+        // stand: the hole card is shown and the dealer draws
+        counter.update(state(List.of("2C", "5D", "3S"), List.of("KH", "4C", "AS"), 45, false));
+        assertEquals(2, counter.getRunningCount());
+        assertEquals(6, counter.getCardsSeen());
+        assertEquals(2 * 52 / 45.0, counter.getTrueCount(), 1e-9);
+
+        int[] unseen = new int[10];
+        counter.getUnseen(unseen);
+        assertArrayEquals(new int[] { 3, 3, 3, 3, 3, 4, 4, 4, 4, 15 }, unseen);
+    }
+
+    @Test
+    public void startsOverOnAReshuffle() {
+        CardCounter counter = new CardCounter(CountingSystem.HI_LO);
+        counter.update(state(List.of("2C", "3D"), List.of("4H", "???"), 48, false));
+        assertEquals(3, counter.getRunningCount());
+
+        // the next hand is dealt from a new deck
+        counter.update(state(List.of("KC", "QD"), List.of("5H", "???"), 48, true));
+        assertEquals(-1, counter.getRunningCount());
+        assertEquals(3, counter.getCardsSeen());
+
+        // later responses for the same hand still say reshuffled but don't reset again
+        counter.update(state(List.of("KC", "QD"), List.of("5H", "6S"), 48, true));
+        assertEquals(0, counter.getRunningCount());
+        assertEquals(4, counter.getCardsSeen());
+    }
+
+    @Test
+    public void midHandReshuffleCountsOnlyTheNewDecksCards() {
+        CardCounter counter = new CardCounter(CountingSystem.HI_LO);
+        counter.update(state(List.of("2C", "3D"), List.of("4H", "???"), 1, false));
+        // the deck ran out on the hit: the 10 is the first card of the new deck
+        counter.update(state(List.of("2C", "3D", "10S"), List.of("4H", "???"), 51, true));
+        assertEquals(-1, counter.getRunningCount());
+        assertEquals(1, counter.getCardsSeen());
+
+        // the hole card came from the old deck too; the dealer's draw is new
+        GameState stood = state(List.of("2C", "3D", "10S"), List.of("4H", "5C", "KD"), 50, true);
+        stood.gameOver = true;
+        counter.update(stood);
+        assertEquals(-2, counter.getRunningCount());
+        assertEquals(2, counter.getCardsSeen());
+    }
+
+    @Test
+    public void newHandWithoutTheBettingResponse() {
+        CardCounter counter = new CardCounter(CountingSystem.HI_LO);
+        GameState settled = state(List.of("2C", "3D"), List.of("4H", "5C", "KD"), 47, false);
+        settled.gameOver = true;
+        counter.update(settled);
+        assertEquals(3, counter.getRunningCount());
+
+        // the next hand, seen first after a hit, has as many cards as the last one
+        counter.update(state(List.of("6C", "7D", "8S"), List.of("9H", "???"), 42, false));
+        assertEquals(4, counter.getRunningCount());
+        assertEquals(9, counter.getCardsSeen());
+
+        // and a settled hand followed by another settled one with different cards
+        GameState blackjack = state(List.of("AC", "KS"), List.of("2D", "3H"), 38, false);
+        blackjack.gameOver = true;
+        counter.update(blackjack);
+        assertEquals(4, counter.getRunningCount());
+        assertEquals(13, counter.getCardsSeen());
+    }
+
+    private static GameState state(List<String> player, List<String> dealer, int cardsRemaining, boolean reshuffled) {
+        GameState state = new GameState();
+        state.playerCards = player;
+        state.dealerCards = dealer;
+        state.cardsRemaining = cardsRemaining;
+        state.reshuffled = reshuffled;
+        return state;
+    }
+}
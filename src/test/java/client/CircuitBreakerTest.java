@@ -0,0 +1,55 @@
+package client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+public class CircuitBreakerTest
+{
+    @Test
+    public void opensAfterEnoughFailuresInARow() throws Exception {
+        CircuitBreaker breaker = new CircuitBreaker(3, 1, TimeUnit.HOURS);
+        breaker.onFailure();
+        breaker.onFailure();
+        // a success starts the count again
+        breaker.onSuccess();
+        breaker.onFailure();
+        breaker.onFailure();
+        breaker.check();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+
+        breaker.onFailure();
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertThrows(CircuitBreaker.OpenException.class, breaker::check);
+    }
+
+    @Test
+    public void letsOneTrialThroughAfterTheCoolDown() throws Exception {
+        CircuitBreaker breaker = new CircuitBreaker(1, 50, TimeUnit.MILLISECONDS);
+        breaker.onFailure();
+        assertThrows(CircuitBreaker.OpenException.class, breaker::check);
+        Thread.sleep(60);
+
+        breaker.check();
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        assertThrows(CircuitBreaker.OpenException.class, breaker::check);
+        // a trial that was never sent makes way for another
+        breaker.cancel();
+        breaker.check();
+
+        // a failed trial opens it again for a whole cool-down
+        breaker.onFailure();
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertThrows(CircuitBreaker.OpenException.class, breaker::check);
+        Thread.sleep(60);
+
+        breaker.check();
+        breaker.onSuccess();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        breaker.check();
+        breaker.check();
+    }
+}
@@ -0,0 +1,153 @@
+package client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.sun.net.httpserver.HttpServer;
+
+public class ClientConnecterTest
+{
+    @TempDir
+    Path dir;
+
+    @Test
+    public void retriesAnOverloadedListAndRecordsOnlyItsResult() throws Exception {
+        Flaky server = new Flaky(2, 503);
+        try {
+            Path file = dir.resolve("list.transcript");
+            ClientConnecter connecter = new ClientConnecter(server.baseUrl(), "superman", "1");
+            try (Transcript.Recorder recorder = new Transcript.Recorder(file)) {
+                connecter.setRecorder(recorder);
+                assertTrue(connecter.listSessions().isEmpty());
+                assertTrue(connecter.listSessionsAsync().join().isEmpty());
+            }
+            assertEquals(6, server.requests.get());
+
+            List<Transcript.Exchange> exchanges = Transcript.read(file);
+            assertEquals(2, exchanges.size());
+            for (Transcript.Exchange exchange : exchanges) {
+                assertEquals(Action.LIST, exchange.action);
+                assertEquals(200, exchange.status);
+            }
+            // the replay succeeds where the recorded run did
+            ReplayApi replay = new ReplayApi(exchanges, false);
+            assertTrue(replay.listSessions().isEmpty());
+            assertTrue(replay.listSessions().isEmpty());
+            assertEquals(0, replay.remaining());
+        } finally {
+            server.stop();
+        }
+    }
+
+    @Test
+    public void givesUpAfterTheLastRetry() throws Exception {
+        Flaky server = new Flaky(Integer.MAX_VALUE, 503);
+        try {
+            Path file = dir.resolve("failed.transcript");
+            ClientConnecter connecter = new ClientConnecter(server.baseUrl(), "superman", "1");
+            try (Transcript.Recorder recorder = new Transcript.Recorder(file)) {
+                connecter.setRecorder(recorder);
+                ServerException e = assertThrows(ServerException.class, connecter::listSessions);
+                assertEquals(503, e.getStatus());
+                assertTrue(e.isOverload());
+            }
+            assertEquals(1 + ClientConnecter.MAX_RETRIES, server.requests.get());
+
+            List<Transcript.Exchange> exchanges = Transcript.read(file);
+            assertEquals(1, exchanges.size());
+            assertEquals(503, exchanges.get(0).status);
+            ReplayApi replay = new ReplayApi(exchanges, false);
+            assertEquals(503, assertThrows(ServerException.class, replay::listSessions).getStatus());
+        } finally {
+            server.stop();
+        }
+    }
+
+    @Test
+    public void doesNotRetryARejectedCall() throws Exception {
+        Flaky server = new Flaky(Integer.MAX_VALUE, 400);
+        try {
+            ClientConnecter connecter = new ClientConnecter(server.baseUrl(), "superman", "1");
+            ServerException e = assertThrows(ServerException.class, connecter::listSessions);
+            assertEquals(400, e.getStatus());
+            assertEquals(Action.LIST, e.getAction());
+            assertEquals(Flaky.BODY, e.getBody());
+            assertFalse(e.isOverload());
+            assertEquals(1, server.requests.get());
+        } finally {
+            server.stop();
+        }
+    }
+
+    @Test
+    public void doesNotRetryCallsThatChangeTheGame() throws Exception {
+        Flaky server = new Flaky(Integer.MAX_VALUE, 503);
+        try {
+            ClientConnecter connecter = new ClientConnecter(server.baseUrl(), "superman", "1");
+            UUID sessionId = UUID.randomUUID();
+            assertThrows(ServerException.class, () -> connecter.hit(sessionId));
+            assertEquals(1, server.requests.get());
+
+            CompletionException e = assertThrows(CompletionException.class, () -> connecter.standAsync(sessionId).join());
+            assertTrue(e.getCause() instanceof ServerException);
+            assertEquals(2, server.requests.get());
+        } finally {
+            server.stop();
+        }
+    }
+
+    @Test
+    public void mapsAnUnreachableServerToIOException() throws Exception {
+        Flaky server = new Flaky(0, 200);
+        String baseUrl = server.baseUrl();
+        server.stop();
+        ClientConnecter connecter = new ClientConnecter(baseUrl, "superman", "1");
+        assertThrows(IOException.class, () -> connecter.hit(UUID.randomUUID()));
+    }
+
+    // fails `failures` requests in a row with `status`, then answers one with an empty list, and so on
+    private static class Flaky
+    {
+        static final String BODY = "{\"error\":\"no\"}";
+
+        final HttpServer server;
+        final AtomicInteger requests = new AtomicInteger();
+
+        Flaky(int failures, int status) throws IOException
+        {
+            server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            server.createContext("/", exchange -> {
+                boolean fail = (requests.incrementAndGet() - 1) % (failures + 1L) < failures;
+                byte[] body = (fail ? BODY : "[]").getBytes(StandardCharsets.UTF_8);
+                exchange.sendResponseHeaders(fail ? status : 200, body.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            });
+            server.start();
+        }
+
+        String baseUrl() {
+            return "http://localhost:" + server.getAddress().getPort();
+        }
+
+        void stop() {
+            server.stop(0);
+        }
+    }
+}
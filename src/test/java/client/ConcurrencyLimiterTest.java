@@ -0,0 +1,103 @@
+package client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.Test;
+
+public class ConcurrencyLimiterTest
+{
+    private static final long FAST = 1_000_000;
+
+    @Test
+    public void queuesCallersOverTheLimitInOrder() {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(2, 1, 10);
+        assertTrue(limiter.acquireAsync().isDone());
+        assertTrue(limiter.acquireAsync().isDone());
+        CompletableFuture<Void> third = limiter.acquireAsync();
+        CompletableFuture<Void> fourth = limiter.acquireAsync();
+        assertFalse(third.isDone());
+        assertEquals(2, limiter.getInFlight());
+
+        limiter.release();
+        assertTrue(third.isDone());
+        assertFalse(fourth.isDone());
+        limiter.release();
+        assertTrue(fourth.isDone());
+        assertEquals(2, limiter.getInFlight());
+    }
+
+    @Test
+    public void growsWhileCallsAreFastAndBacksOffWhenTheyAreNot() {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(4, 1, 100);
+        for (int round = 0; round < 50; round++) {
+            fill(limiter, FAST);
+        }
+        int grown = limiter.getLimit();
+        assertTrue(grown > 4, "limit " + grown);
+
+        // latency well past the fastest call seen
+        limiter.acquireAsync();
+        limiter.release(10 * FAST, false);
+        assertEquals((int) (grown * 0.9), limiter.getLimit(), 1);
+
+        int slowed = limiter.getLimit();
+        limiter.acquireAsync();
+        limiter.release(FAST, true);
+        assertEquals(slowed / 2, limiter.getLimit(), 1);
+    }
+
+    @Test
+    public void staysWithinItsBounds() {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(2, 2, 3);
+        for (int i = 0; i < 10; i++) {
+            limiter.acquireAsync();
+            limiter.release(FAST, true);
+        }
+        assertEquals(2, limiter.getLimit());
+        for (int round = 0; round < 100; round++) {
+            fill(limiter, FAST);
+        }
+        assertEquals(3, limiter.getLimit());
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    public void anInterruptedWaiterHoldsNoPermit() throws Exception {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(1, 1, 1);
+        limiter.acquire();
+        AtomicBoolean interrupted = new AtomicBoolean();
+        Thread waiter = new Thread(() -> {
+            try {
+                limiter.acquire();
+            } catch (InterruptedException e) {
+                interrupted.set(true);
+            }
+        });
+        waiter.start();
+        Thread.sleep(50);
+        waiter.interrupt();
+        waiter.join();
+        assertTrue(interrupted.get());
+
+        // the abandoned place in line is skipped, and its permit is not lost
+        limiter.release();
+        assertEquals(0, limiter.getInFlight());
+        assertTrue(limiter.acquireAsync().isDone());
+    }
+
+    // takes every permit the limit allows, then gives them all back with the same latency
+    private static void fill(ConcurrencyLimiter limiter, long latencyNanos) {
+        int permits = limiter.getLimit();
+        for (int i = 0; i < permits; i++) {
+            assertTrue(limiter.acquireAsync().isDone());
+        }
+        for (int i = 0; i < permits; i++) {
+            limiter.release(latencyNanos, false);
+        }
+    }
+}
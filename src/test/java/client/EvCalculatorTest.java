@@ -0,0 +1,94 @@
+package client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+public class EvCalculatorTest
+{
+    private static final int[] FULL_DECK = { 4, 4, 4, 4, 4, 4, 4, 4, 4, 16 };
+
+    @Test
+    public void dealerBlackjackBeatsAMultiCard21() {
+        List<Card> sevens = List.of(Card.SEVEN_OF_CLUBS, Card.SEVEN_OF_HEARTS, Card.SEVEN_OF_SPADES);
+        // nothing but tens left: an ace up is always a blackjack, a nine up always 19
+        int[] tens = { 0, 0, 0, 0, 0, 0, 0, 0, 0, 5 };
+        EvCalculator calculator = new EvCalculator();
+        assertEquals(-1, calculator.standEv(sevens, Card.ACE_OF_DIAMONDS, tens), 1e-12);
+        assertEquals(1, calculator.standEv(sevens, Card.NINE_OF_DIAMONDS, tens), 1e-12);
+    }
+
+    @Test
+    public void emptyDeckIsReshuffled() {
+        List<Card> hand = List.of(Card.TEN_OF_CLUBS, Card.SIX_OF_HEARTS);
+        int[] empty = new int[10];
+        EvCalculator calculator = new EvCalculator();
+        double hit = calculator.hitEv(hand, Card.TEN_OF_SPADES, FULL_DECK);
+        double stand = calculator.standEv(hand, Card.TEN_OF_SPADES, FULL_DECK);
+        assertEquals(hit, new EvCalculator().hitEv(hand, Card.TEN_OF_SPADES, empty), 1e-12);
+        assertEquals(stand, new EvCalculator().standEv(hand, Card.TEN_OF_SPADES, empty), 1e-12);
+        assertTrue(stand < -0.5, "16 against a ten loses most of the time: " + stand);
+    }
+
+    @Test
+    public void dealerDistributionAddsUp() {
+        double[] distribution = new EvCalculator().dealerDistribution(Card.SIX_OF_CLUBS, FULL_DECK);
+        assertEquals(1, Arrays.stream(distribution).sum(), 1e-9);
+        // a six up busts about four times in ten
+        assertTrue(distribution[EvCalculator.BUST] > 0.35 && distribution[EvCalculator.BUST] < 0.5);
+    }
+
+    @Test
+    public void basicDecisions() {
+        EvCalculator calculator = new EvCalculator();
+        assertTrue(calculator.shouldHit(List.of(Card.FIVE_OF_CLUBS, Card.SIX_OF_CLUBS), Card.TEN_OF_HEARTS, FULL_DECK));
+        assertTrue(calculator.shouldHit(List.of(Card.TEN_OF_CLUBS, Card.SIX_OF_CLUBS), Card.SEVEN_OF_HEARTS, FULL_DECK));
+        assertFalse(calculator.shouldHit(List.of(Card.TEN_OF_CLUBS, Card.SEVEN_OF_CLUBS), Card.TEN_OF_HEARTS, FULL_DECK));
+        assertFalse(calculator.shouldHit(List.of(Card.TEN_OF_CLUBS, Card.THREE_OF_CLUBS), Card.SIX_OF_HEARTS, FULL_DECK));
+    }
+
+    @Test
+    public void rejectsMoreCardsThanADeck() {
+        int[] unseen = FULL_DECK.clone();
+        unseen[0] = 5;
+        assertThrows(IllegalArgumentException.class,
+            () -> new EvCalculator().standEv(List.of(Card.TEN_OF_CLUBS, Card.SIX_OF_CLUBS), Card.TWO_OF_CLUBS, unseen));
+    }
+
+    @Test
+    public void coldDecisionsTakeUnderAMillisecond() {
+        Random random = new Random(1);
+        // the first rounds warm up the JIT
+        long[] nanos = new long[1000];
+        for (int round = -1000; round < nanos.length; round++) {
+            List<Card> deck = new ArrayList<>(Arrays.asList(Card.newDeck()));
+            Collections.shuffle(deck, random);
+            int seen = random.nextInt(35);
+            int[] unseen = FULL_DECK.clone();
+            for (int i = 0; i < seen + 3; i++) {
+                Card card = deck.get(i);
+                unseen[(card.isAce() ? 1 : card.getValue()) - 1]--;
+            }
+            List<Card> hand = List.of(deck.get(seen), deck.get(seen + 1));
+            EvCalculator calculator = new EvCalculator();
+            long start = System.nanoTime();
+            calculator.shouldHit(hand, deck.get(seen + 2), unseen);
+            if (round >= 0) {
+                nanos[round] = System.nanoTime() - start;
+            }
+        }
+        Arrays.sort(nanos);
+        // a percentile rather than the worst case, so a pause in the JVM or the machine doesn't fail it
+        long p95 = nanos[nanos.length * 95 / 100];
+        assertTrue(p95 < 1_000_000, "95th percentile " + p95 / 1000 + " us");
+    }
+}
@@ -0,0 +1,80 @@
+package client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.google.gson.JsonParseException;
+
+public class GameStateDecoderTest
+{
+    @Test
+    public void decodesWhatGsonWrites() {
+        LocalBlackjackEngine engine = new LocalBlackjackEngine(42);
+        GameState state = engine.startGame();
+        for (int hand = 0; hand < 200; hand++) {
+            if (hand > 0) {
+                state = roundTrip(engine.newGame(state.sessionId));
+            }
+            state = roundTrip(engine.placeBet(state.sessionId, BlackjackRules.BET_UNIT));
+            while (state.canHit) {
+                state = roundTrip(state.playerValue < 17 ? engine.hit(state.sessionId) : engine.stand(state.sessionId));
+            }
+        }
+    }
+
+    @Test
+    public void handlesNullsUnknownFieldsAndTheReadmeSpelling() {
+        String json = "{\"sessionId\":\"5e697d3d-42cf-4a19-886a-5b0a3a5b2f10\","
+            + "\"playerCards\":[\"ACE OF SPADES\",\"KING OF HEARTS\"],\"playerValue\":21,"
+            + "\"dealerCards\":[\"TWO OF CLUBS\",\"???\"],\"dealerValue\":null,"
+            + "\"phase\":\"RESOLVED\",\"outcome\":null,\"extra\":{\"nested\":[1,2]},"
+            + "\"balance\":990,\"currentBet\":10,\"canHit\":false,\"canStand\":false,"
+            + "\"gameOver\":true,\"cardsRemaining\":48,\"reShuffled\":true}";
+        GameState state = GameStateDecoder.decode(json.getBytes(StandardCharsets.UTF_8));
+
+        assertEquals(List.of(Card.ACE_OF_SPADES, Card.KING_OF_HEARTS), state.getPlayerHand());
+        assertEquals(List.of(Card.TWO_OF_CLUBS, Card.HIDDEN), state.getDealerHand());
+        assertNull(state.dealerValue);
+        assertNull(state.outcome);
+        assertEquals(990, state.balance);
+        assertTrue(state.gameOver);
+        assertFalse(state.canHit);
+        assertTrue(state.reshuffled);
+    }
+
+    @Test
+    public void rejectsABadCard() {
+        byte[] json = "{\"playerCards\":[\"ELEVEN OF CUPS\"]}".getBytes(StandardCharsets.UTF_8);
+        assertThrows(JsonParseException.class, () -> GameStateDecoder.decode(json));
+    }
+
+    // checks that decoding Gson's JSON for the state gives the same state back
+    private static GameState roundTrip(GameState state) {
+        GameState decoded = GameStateDecoder.decode(JsonUtil.GSON.toJson(state).getBytes(StandardCharsets.UTF_8));
+        assertEquals(state.sessionId, decoded.sessionId);
+        assertEquals(state.playerCards, decoded.playerCards);
+        assertEquals(state.getPlayerHand(), decoded.getPlayerHand());
+        assertEquals(state.playerValue, decoded.playerValue);
+        assertEquals(state.dealerCards, decoded.dealerCards);
+        assertEquals(state.getDealerHand(), decoded.getDealerHand());
+        assertEquals(state.dealerValue, decoded.dealerValue);
+        assertEquals(state.phase, decoded.phase);
+        assertEquals(state.outcome, decoded.outcome);
+        assertEquals(state.balance, decoded.balance);
+        assertEquals(state.currentBet, decoded.currentBet);
+        assertEquals(state.canHit, decoded.canHit);
+        assertEquals(state.canStand, decoded.canStand);
+        assertEquals(state.gameOver, decoded.gameOver);
+        assertEquals(state.cardsRemaining, decoded.cardsRemaining);
+        assertEquals(state.reshuffled, decoded.reshuffled);
+        return decoded;
+    }
+}
@@ -0,0 +1,142 @@
+package client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class HandJournalTest
+{
+    @TempDir
+    Path dir;
+
+    @Test
+    public void readsBackWhatWasWrittenAcrossSegments() throws Exception {
+        List<GameState> states = play(200);
+        try (HandJournal journal = new HandJournal(dir, 4096)) {
+            for (GameState state : states) {
+                journal.append(Action.HIT, state);
+            }
+        }
+        assertTrue(Files.list(dir).count() > 2, "should have rolled over");
+
+        List<GameState> read = new ArrayList<>();
+        long count = HandJournal.replay(dir, entry -> read.add(toState(entry)));
+        assertEquals(states.size(), count);
+        for (int i = 0; i < states.size(); i++) {
+            assertSameState(states.get(i), read.get(i));
+        }
+    }
+
+    @Test
+    public void stopsAtATornRecordAndGoesOnWithTheNextSegment() throws Exception {
+        List<GameState> states = play(3);
+        Path segment;
+        byte[] before;
+        try (HandJournal journal = new HandJournal(dir, 4096)) {
+            journal.append(Action.BET, states.get(0));
+            journal.append(Action.BET, states.get(1));
+            journal.flush();
+            segment = Files.list(dir).findFirst().get();
+            before = Files.readAllBytes(segment);
+            journal.append(Action.BET, states.get(2));
+        }
+        // the process died part way through the last record: its end never reached the file
+        byte[] after = Files.readAllBytes(segment);
+        int start = 0;
+        while (before[start] == after[start]) {
+            start++;
+        }
+        for (int i = start + 20; i < start + 30; i++) {
+            after[i] = 0;
+        }
+        Files.write(segment, after);
+        assertEquals(2, HandJournal.replay(dir, entry -> { }));
+
+        // a journal opened after the crash writes to a new segment, which is read as well
+        try (HandJournal journal = new HandJournal(dir, 4096)) {
+            journal.append(Action.STAND, states.get(2));
+        }
+        List<Action> actions = new ArrayList<>();
+        assertEquals(3, HandJournal.replay(dir, entry -> actions.add(entry.action)));
+        assertEquals(List.of(Action.BET, Action.BET, Action.STAND), actions);
+    }
+
+    @Test
+    public void stopsAtACorruptRecord() throws Exception {
+        List<GameState> states = play(5);
+        try (HandJournal journal = new HandJournal(dir, 4096)) {
+            for (GameState state : states) {
+                journal.append(Action.HIT, state);
+            }
+        }
+        Path segment = Files.list(dir).findFirst().get();
+        byte[] bytes = Files.readAllBytes(segment);
+        // a byte in the middle of the first record
+        bytes[20] ^= 1;
+        Files.write(segment, bytes);
+        assertEquals(0, HandJournal.replay(dir, entry -> { }));
+    }
+
+    // states from whole hands on a local table, with every phase and hidden hole cards
+    private static List<GameState> play(int count) {
+        LocalBlackjackEngine engine = new LocalBlackjackEngine(7);
+        List<GameState> states = new ArrayList<>();
+        UUID sessionId = engine.startGame().sessionId;
+        while (states.size() < count) {
+            GameState state = engine.placeBet(sessionId, 10);
+            states.add(state);
+            while (!state.gameOver) {
+                state = state.playerValue < 17 ? engine.hit(sessionId) : engine.stand(sessionId);
+                states.add(state);
+            }
+            states.add(engine.newGame(sessionId));
+        }
+        return states.subList(0, count);
+    }
+
+    private static GameState toState(HandJournal.Entry entry) {
+        GameState state = new GameState();
+        state.sessionId = entry.getSessionId();
+        state.phase = entry.phase;
+        state.outcome = entry.outcome;
+        state.currentBet = entry.currentBet;
+        state.balance = entry.balance;
+        state.playerValue = entry.playerValue;
+        state.dealerValue = entry.dealerValue < 0 ? null : entry.dealerValue;
+        state.cardsRemaining = entry.cardsRemaining;
+        state.gameOver = entry.isGameOver();
+        state.reshuffled = entry.isReshuffled();
+        state.playerCards = new ArrayList<>();
+        for (int i = 0; i < entry.playerCardCount; i++) {
+            state.playerCards.add(entry.getPlayerCard(i).getServerName());
+        }
+        state.dealerCards = new ArrayList<>();
+        for (int i = 0; i < entry.dealerCardCount; i++) {
+            state.dealerCards.add(entry.getDealerCard(i).getServerName());
+        }
+        return state;
+    }
+
+    private static void assertSameState(GameState expected, GameState actual) {
+        assertEquals(expected.sessionId, actual.sessionId);
+        assertEquals(expected.phase, actual.phase);
+        assertEquals(expected.outcome, actual.outcome);
+        assertEquals(expected.currentBet, actual.currentBet);
+        assertEquals(expected.balance, actual.balance);
+        assertEquals(expected.playerValue, actual.playerValue);
+        assertEquals(expected.dealerValue, actual.dealerValue);
+        assertEquals(expected.cardsRemaining, actual.cardsRemaining);
+        assertEquals(expected.gameOver, actual.gameOver);
+        assertEquals(expected.reshuffled, actual.reshuffled);
+        assertEquals(expected.playerCards, actual.playerCards);
+        assertEquals(expected.dealerCards, actual.dealerCards);
+    }
+}
@@ -0,0 +1,76 @@
+package client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+public class LatencyHistogramTest
+{
+    @Test
+    public void percentilesAreWithinABucket() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long micros = 1; micros <= 100_000; micros++) {
+            histogram.record(micros);
+        }
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        assertEquals(100_000, snapshot.getCount());
+        assertEquals(100_000, snapshot.getMax());
+        assertEquals(50_000.5, snapshot.getMean(), 1e-9);
+        for (double percent : new double[] {1, 50, 90, 99, 99.9}) {
+            long exact = (long) (percent * 1000);
+            long reported = snapshot.getPercentile(percent);
+            // rounded up to the top of a bucket, and buckets are about 3% wide
+            assertTrue(reported >= exact && reported <= exact * 1.035, percent + "%: " + reported);
+        }
+        assertEquals(100_000, snapshot.getPercentile(100));
+    }
+
+    @Test
+    public void smallValuesAreExact() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long micros = 0; micros < 64; micros++) {
+            histogram.record(micros);
+        }
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        assertEquals(31, snapshot.getPercentile(50));
+        assertEquals(63, snapshot.getPercentile(100));
+    }
+
+    @Test
+    public void clampsOutOfRangeValues() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.snapshot().getPercentile(99));
+        histogram.record(-5);
+        assertEquals(0, histogram.snapshot().getPercentile(50));
+        histogram.record(Long.MAX_VALUE);
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        assertEquals(2, snapshot.getCount());
+        assertEquals((1L << 32) - 1, snapshot.getMax());
+        assertEquals(snapshot.getMax(), snapshot.getPercentile(100));
+    }
+
+    @Test
+    public void countsEveryValueFromManyThreads() throws Exception {
+        LatencyHistogram histogram = new LatencyHistogram();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < 100_000; i++) {
+                    histogram.record(i % 1000);
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        assertEquals(400_000, snapshot.getCount());
+        assertEquals(999, snapshot.getMax());
+    }
+}
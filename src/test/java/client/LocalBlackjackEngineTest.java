@@ -0,0 +1,108 @@
+package client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+public class LocalBlackjackEngineTest
+{
+    @Test
+    public void settlesEveryHandByTheRules() {
+        LocalBlackjackEngine engine = new LocalBlackjackEngine(11);
+        GameState state = engine.startGame();
+        UUID sessionId = state.sessionId;
+        int dealerNaturalsAgainst21 = 0;
+        for (int hand = 0; hand < 20_000; hand++) {
+            if (hand > 0) {
+                state = engine.newGame(sessionId);
+            }
+            int balance = state.balance;
+            state = engine.placeBet(sessionId, BlackjackRules.BET_UNIT);
+            while (state.canHit) {
+                // hit hard to see plenty of many-card 21s
+                state = state.playerValue < 18 ? engine.hit(sessionId) : engine.stand(sessionId);
+            }
+            assertTrue(state.gameOver);
+            List<Card> player = state.getPlayerHand();
+            List<Card> dealer = state.getDealerHand();
+            assertEquals(player.size() + dealer.size(), new HashSet<>(concat(player, dealer)).size(), "a card dealt twice");
+
+            String expected = expectedOutcome(player, dealer);
+            assertEquals(expected, state.outcome, player + " against " + dealer);
+            assertEquals(balance + BlackjackRules.payout(expected, BlackjackRules.BET_UNIT), state.balance);
+            if (BlackjackRules.isBlackjack(dealer) && player.size() > 2 && BlackjackRules.handValue(player) == 21) {
+                dealerNaturalsAgainst21++;
+            }
+        }
+        assertTrue(dealerNaturalsAgainst21 > 0, "no dealer blackjack against a many-card 21 was dealt");
+    }
+
+    @Test
+    public void holeCardIsHiddenDuringThePlayersTurn() {
+        LocalBlackjackEngine engine = new LocalBlackjackEngine(3);
+        UUID sessionId = engine.startGame().sessionId;
+        GameState state = engine.placeBet(sessionId, BlackjackRules.BET_UNIT);
+        while (!state.canHit) {
+            state = engine.placeBet(engine.newGame(sessionId).sessionId, BlackjackRules.BET_UNIT);
+        }
+        assertTrue(state.getDealerHand().get(1).isHidden());
+        assertEquals(null, state.dealerValue);
+    }
+
+    @Test
+    public void refusesMovesOutOfTurn() {
+        LocalBlackjackEngine engine = new LocalBlackjackEngine(5);
+        UUID sessionId = engine.startGame().sessionId;
+        assertThrows(IllegalStateException.class, () -> engine.hit(sessionId));
+        assertThrows(IllegalStateException.class, () -> engine.newGame(sessionId));
+        assertThrows(IllegalArgumentException.class, () -> engine.placeBet(sessionId, 15));
+        assertThrows(IllegalArgumentException.class, () -> engine.hit(UUID.randomUUID()));
+    }
+
+    @Test
+    public void reshuffleLeavesTheCardsInPlayOut() {
+        Shoe shoe = new Shoe(new SplittableRandom(1));
+        List<Card> inPlay = List.of(Card.ACE_OF_SPADES, Card.TEN_OF_HEARTS, Card.TWO_OF_CLUBS);
+        shoe.shuffle(inPlay);
+        assertEquals(BlackjackRules.DECK_SIZE - inPlay.size(), shoe.remaining());
+        List<Card> dealt = new ArrayList<>();
+        while (shoe.remaining() > 0) {
+            Card card = shoe.draw();
+            assertFalse(inPlay.contains(card), card + " is still in play");
+            dealt.add(card);
+        }
+        assertEquals(dealt.size(), new HashSet<>(dealt).size());
+    }
+
+    private static String expectedOutcome(List<Card> player, List<Card> dealer) {
+        boolean playerNatural = BlackjackRules.isBlackjack(player);
+        boolean dealerNatural = BlackjackRules.isBlackjack(dealer);
+        if (playerNatural) {
+            return dealerNatural ? BlackjackRules.PUSH : BlackjackRules.PLAYER_BLACKJACK;
+        }
+        int playerTotal = BlackjackRules.handValue(player);
+        int dealerTotal = BlackjackRules.handValue(dealer);
+        if (playerTotal > BlackjackRules.BLACKJACK || dealerNatural) {
+            return BlackjackRules.DEALER_WINS;
+        }
+        if (dealerTotal > BlackjackRules.BLACKJACK || playerTotal > dealerTotal) {
+            return BlackjackRules.PLAYER_WINS;
+        }
+        return playerTotal < dealerTotal ? BlackjackRules.DEALER_WINS : BlackjackRules.PUSH;
+    }
+
+    private static List<Card> concat(List<Card> a, List<Card> b) {
+        List<Card> all = new ArrayList<>(a);
+        all.addAll(b);
+        return all;
+    }
+}
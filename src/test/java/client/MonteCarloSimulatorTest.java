@@ -0,0 +1,69 @@
+package client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+public class MonteCarloSimulatorTest
+{
+    // a few chunks and a partial one
+    private static final long HANDS = 3L * MonteCarloSimulator.CHUNK_HANDS + 123;
+
+    private final MonteCarloSimulator simulator = new MonteCarloSimulator(StrategyTable.basic(), CountingSystem.HI_LO);
+
+    @Test
+    public void sameSeedSameResultOnAnyNumberOfThreads() {
+        MonteCarloSimulator.Result one = simulator.run(HANDS, 7, 1);
+        MonteCarloSimulator.Result three = simulator.run(HANDS, 7, 3);
+        assertEquals(HANDS, one.hands);
+        assertSame(one, three);
+        assertSame(one, simulator.run(HANDS, 7, 1));
+    }
+
+    @Test
+    public void otherSeedsGiveOtherResults() {
+        assertNotEquals(simulator.run(HANDS, 7, 1).net, simulator.run(HANDS, 8, 1).net);
+    }
+
+    @Test
+    public void resultIsPlausible() {
+        MonteCarloSimulator.Result result = simulator.run(HANDS, 7, 1);
+        // every hand wins, loses or pushes at most one and a half times its bet
+        assertTrue(Math.abs(result.net) <= result.totalBet * 3 / 2);
+        assertTrue(result.totalBet >= HANDS * BlackjackRules.BET_UNIT);
+        assertTrue(Math.abs(result.mean()) < 1, "mean per hand " + result.mean());
+    }
+
+    @Test
+    public void noHands() {
+        MonteCarloSimulator.Result result = simulator.run(0, 7, 1);
+        assertEquals(0, result.hands);
+        assertEquals(0, result.net);
+        assertThrows(IllegalArgumentException.class, () -> simulator.run(-1, 7, 1));
+    }
+
+    @Test
+    public void sessionsAreRepeatable() {
+        MonteCarloSimulator.Result first = simulator.runSessions(500, 100, 0, 3);
+        MonteCarloSimulator.Result second = simulator.runSessions(500, 100, 0, 3);
+        assertEquals(500, first.sessions);
+        assertEquals(500L * 100, first.hands);
+        assertSame(first, second);
+        assertEquals(first.sessionNetSquared, second.sessionNetSquared);
+
+        // a stop-loss can only end sessions early
+        MonteCarloSimulator.Result stopped = simulator.runSessions(500, 100, 50, 3);
+        assertEquals(500, stopped.sessions);
+        assertTrue(stopped.hands < first.hands);
+    }
+
+    private static void assertSame(MonteCarloSimulator.Result expected, MonteCarloSimulator.Result actual) {
+        assertEquals(expected.hands, actual.hands);
+        assertEquals(expected.totalBet, actual.totalBet);
+        assertEquals(expected.net, actual.net);
+        assertEquals(expected.netSquared, actual.netSquared);
+    }
+}
@@ -0,0 +1,193 @@
+package client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class SessionStateCacheTest
+{
+    private static final LocalDateTime T1 = LocalDateTime.of(2024, 1, 1, 12, 0, 0);
+    private static final LocalDateTime T2 = T1.plusSeconds(1);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void unconfirmedStateIsNotCurrent() {
+        SessionStateCache cache = new SessionStateCache();
+        GameState state = state(UUID.randomUUID());
+        cache.onGameState(Action.BET, state);
+        assertSame(state, cache.get(state.sessionId));
+        assertNull(cache.getIfCurrent(summary(state.sessionId, T1)));
+    }
+
+    @Test
+    public void confirmedStateIsCurrentUntilLastAccessChanges() {
+        SessionStateCache cache = new SessionStateCache();
+        GameState state = state(UUID.randomUUID());
+        cache.onGameState(Action.BET, state);
+        cache.confirm(List.of(summary(state.sessionId, T1)), cache.mark());
+        assertSame(state, cache.getIfCurrent(summary(state.sessionId, T1)));
+        // someone has used the session since
+        assertNull(cache.getIfCurrent(summary(state.sessionId, T2)));
+    }
+
+    @Test
+    public void listSentBeforeTheStateDoesNotConfirmIt() {
+        SessionStateCache cache = new SessionStateCache();
+        UUID sessionId = UUID.randomUUID();
+        long mark = cache.mark();
+        cache.onGameState(Action.HIT, state(sessionId));
+        cache.confirm(List.of(summary(sessionId, T1)), mark);
+        assertNull(cache.getIfCurrent(summary(sessionId, T1)));
+    }
+
+    @Test
+    public void newResponseNeedsConfirmingAgain() {
+        SessionStateCache cache = new SessionStateCache();
+        UUID sessionId = UUID.randomUUID();
+        cache.onGameState(Action.BET, state(sessionId));
+        cache.confirm(List.of(summary(sessionId, T1)), cache.mark());
+        GameState hit = state(sessionId);
+        cache.onGameState(Action.HIT, hit);
+        assertNull(cache.getIfCurrent(summary(sessionId, T1)));
+        // a later list confirms it, even if the server's clock didn't move
+        cache.confirm(List.of(summary(sessionId, T1)), cache.mark());
+        assertSame(hit, cache.getIfCurrent(summary(sessionId, T1)));
+    }
+
+    @Test
+    public void resumeAllOnlyAsksForStaleSessions() throws Exception {
+        FakeApi api = new FakeApi();
+        SessionStateCache cache = new SessionStateCache();
+        UUID fresh = UUID.randomUUID();
+        UUID stale = UUID.randomUUID();
+        UUID gone = UUID.randomUUID();
+        UUID added = UUID.randomUUID();
+        GameState cached = state(fresh);
+        cache.onGameState(Action.BET, cached);
+        cache.onGameState(Action.BET, state(stale));
+        cache.onGameState(Action.BET, state(gone));
+        api.sessions.add(summary(fresh, T1));
+        api.sessions.add(summary(stale, T1));
+        cache.listSessions(api);
+
+        api.sessions.set(1, summary(stale, T2));
+        api.sessions.add(summary(added, T1));
+        Map<UUID, GameState> states = cache.resumeAll(api);
+
+        assertEquals(3, states.size());
+        assertSame(cached, states.get(fresh));
+        assertEquals(List.of(stale, added), api.resumed);
+        assertSame(api.states.get(stale), states.get(stale));
+        assertNull(cache.get(gone));
+    }
+
+    @Test
+    public void dropsFinishedSessions() {
+        SessionStateCache cache = new SessionStateCache();
+        UUID sessionId = UUID.randomUUID();
+        cache.onGameState(Action.BET, state(sessionId));
+        cache.onFinished(sessionId);
+        assertNull(cache.get(sessionId));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void savesOnlyConfirmedStates() throws Exception {
+        SessionStateCache cache = new SessionStateCache();
+        UUID confirmed = UUID.randomUUID();
+        UUID unconfirmed = UUID.randomUUID();
+        cache.onGameState(Action.BET, state(confirmed));
+        cache.confirm(List.of(summary(confirmed, T1)), cache.mark());
+        cache.onGameState(Action.BET, state(unconfirmed));
+        Path file = directory.resolve("cache.json");
+        cache.save(file);
+
+        SessionStateCache loaded = new SessionStateCache();
+        loaded.load(file);
+        assertEquals(1, loaded.size());
+        assertEquals(confirmed, loaded.getIfCurrent(summary(confirmed, T1)).sessionId);
+        assertNull(loaded.getIfCurrent(summary(confirmed, T2)));
+
+        // no file is an empty cache
+        SessionStateCache empty = new SessionStateCache();
+        empty.load(directory.resolve("missing.json"));
+        assertEquals(0, empty.size());
+    }
+
+    private static GameState state(UUID sessionId) {
+        GameState state = new GameState();
+        state.sessionId = sessionId;
+        return state;
+    }
+
+    private static SessionSummary summary(UUID sessionId, LocalDateTime lastAccess) {
+        SessionSummary summary = new SessionSummary();
+        summary.sessionId = sessionId;
+        summary.lastAccess = lastAccess;
+        return summary;
+    }
+
+    // lists the sessions it is given and records which ones are resumed
+    private static class FakeApi implements BlackjackApi
+    {
+        final List<SessionSummary> sessions = new ArrayList<>();
+        final List<UUID> resumed = new ArrayList<>();
+        final Map<UUID, GameState> states = new HashMap<>();
+
+        @Override
+        public List<SessionSummary> listSessions() {
+            return new ArrayList<>(sessions);
+        }
+
+        @Override
+        public GameState resumeSession(UUID sessionId) {
+            resumed.add(sessionId);
+            GameState state = state(sessionId);
+            states.put(sessionId, state);
+            return state;
+        }
+
+        @Override
+        public GameState startGame() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public GameState newGame(UUID sessionId) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public GameState placeBet(UUID sessionId, int amount) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public GameState hit(UUID sessionId) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public GameState stand(UUID sessionId) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void finishGame(UUID sessionId) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import org.junit.jupiter.api.Test;
+
+public class StrategyTableTest
+{
+    @Test
+    public void basicStrategy() {
+        StrategyTable table = StrategyTable.basicWithoutDeviations();
+        assertTrue(table.shouldHit(11, false, 10, 0));
+        assertTrue(table.shouldHit(12, false, 2, 0));
+        assertFalse(table.shouldHit(12, false, 4, 0));
+        assertFalse(table.shouldHit(13, false, 6, 0));
+        assertTrue(table.shouldHit(16, false, 7, 0));
+        assertFalse(table.shouldHit(17, false, 11, 0));
+        assertTrue(table.shouldHit(17, true, 2, 0));
+        assertFalse(table.shouldHit(18, true, 8, 0));
+        assertTrue(table.shouldHit(18, true, 9, 0));
+        assertFalse(table.shouldHit(19, true, 11, 0));
+        // a bust hand never hits
+        assertFalse(table.shouldHit(22, false, 10, 0));
+    }
+
+    @Test
+    public void deviationsStandFromTheirIndex() {
+        StrategyTable table = StrategyTable.basic();
+        // 16 against a ten: stand at a true count of 0 or more
+        assertTrue(table.shouldHit(16, false, 10, -1));
+        assertFalse(table.shouldHit(16, false, 10, 0));
+        assertFalse(table.shouldHit(16, false, 10, 0.5));
+        assertTrue(table.shouldHit(16, false, 10, -0.5));
+        // 12 against a 2: hit below +3
+        assertTrue(table.shouldHit(12, false, 2, 2));
+        assertFalse(table.shouldHit(12, false, 2, 3));
+        // 12 against a 5: stand from -2
+        assertTrue(table.shouldHit(12, false, 5, -3));
+        assertFalse(table.shouldHit(12, false, 5, -2));
+    }
+
+    @Test
+    public void moveADeviation() {
+        int[] indexes = StrategyTable.deviationIndexes();
+        indexes[0] = 3;
+        // the caller's copy doesn't change the table's own indexes
+        assertEquals(0, StrategyTable.deviationIndexes()[0]);
+
+        StrategyTable table = StrategyTable.basicWithoutDeviations();
+        table.applyDeviations(indexes);
+        assertTrue(table.shouldHit(16, false, 10, 2));
+        assertFalse(table.shouldHit(16, false, 10, 3));
+        assertThrows(IllegalArgumentException.class, () -> table.applyDeviations(new int[1]));
+    }
+
+    @Test
+    public void betRampAndCountBuckets() {
+        StrategyTable table = StrategyTable.basic();
+        assertEquals(BlackjackRules.BET_UNIT, table.bet(-3.0));
+        assertEquals(BlackjackRules.BET_UNIT, table.bet(1.99));
+        assertEquals(2 * BlackjackRules.BET_UNIT, table.bet(2.0));
+        assertEquals(8 * BlackjackRules.BET_UNIT, table.bet(5.0));
+        // counts beyond the table use its ends
+        assertEquals(8 * BlackjackRules.BET_UNIT, table.bet(40.0));
+        assertEquals(StrategyTable.MIN_TRUE_COUNT, StrategyTable.bucket(-40.0));
+        assertEquals(-1, StrategyTable.bucket(-0.5));
+
+        assertThrows(IllegalArgumentException.class, () -> table.setBetUnits(0, 0));
+        assertThrows(IllegalArgumentException.class, () -> table.setBetRamp(new int[3]));
+    }
+
+    @Test
+    public void writeAndReadBack() throws IOException {
+        StrategyTable table = StrategyTable.basic();
+        table.setHit(true, 18, 8, 4, true);
+        table.setBetUnits(2, 5);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        table.write(out);
+        StrategyTable read = StrategyTable.read(new ByteArrayInputStream(out.toByteArray()));
+
+        for (int tc = StrategyTable.MIN_TRUE_COUNT; tc <= StrategyTable.MAX_TRUE_COUNT; tc++) {
+            assertEquals(table.bet(tc), read.bet(tc));
+            for (int up = 2; up <= 11; up++) {
+                for (int total = 4; total <= 21; total++) {
+                    assertEquals(table.shouldHit(total, false, up, tc), read.shouldHit(total, false, up, tc));
+                    assertEquals(table.shouldHit(total, true, up, tc), read.shouldHit(total, true, up, tc));
+                }
+            }
+        }
+        assertTrue(read.shouldHit(18, true, 8, 4));
+        assertEquals(5 * BlackjackRules.BET_UNIT, read.bet(2));
+    }
+
+    @Test
+    public void rejectsOtherFiles() {
+        byte[] notATable = { 'P', 'K', 3, 4, 0, 0, 0, 0 };
+        assertThrows(IOException.class, () -> StrategyTable.read(new ByteArrayInputStream(notATable)));
+    }
+}